@@ -0,0 +1,63 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+/**
+ * The boards the benchmarks are run on.  The first three are the
+ * levels PGMS plays, and the large board has the density of an
+ * expert game. <p>
+ * The benchmarks use JMH, and are kept in their own module so the
+ * game does not depend on it.  They are in package map to reach the
+ * constructors of MineMap.  <code>mvn package</code> builds them into
+ * <code>benchmarks/target/benchmarks.jar</code>, which runs JMH.
+ */
+public enum Board
+{
+    BEGINNER(10, 9, 9),
+    INTERMEDIATE(40, 16, 16),
+    EXPERT(99, 16, 30),
+    LARGE(825000, 2000, 2000);
+
+    /**
+     * The seed from which every benchmark derives its boards, so runs
+     * measure the same games.
+     */
+    public static final long SEED = 0x5eed;
+
+    final int mines;
+    final int rows;
+    final int columns;
+
+    Board(int mines, int rows, int columns)
+    {
+        this.mines = mines;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Create the mine map of a seed.
+     */
+    MineMap map(long seed)
+    {
+        return new MineMap(mines, rows, columns, seed);
+    }
+}
@@ -0,0 +1,86 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a chunked map of a million by a million cells, with the
+ * density of an expert game.  The mark benchmark marks a cell in a
+ * chunk not yet built, so each operation builds a chunk; the look
+ * benchmark reads the cells of a chunk already built.
+ *
+ * @see ChunkedMap
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkedMapBenchmark
+{
+    private static final int SIDE = 1000000;
+    private static final double DENSITY = 99.0 / (16 * 30);
+
+    private ChunkedMap m;
+    private int next;       // Chunk in which the next mark is made
+
+    @Setup(Level.Iteration)
+    public void setup()
+    {
+        m = new ChunkedMap(SIDE, SIDE, DENSITY, Board.SEED);
+        m.mark(0, 0);
+        next = 1;
+    }
+
+    @Benchmark
+    public int mark()
+    {
+        int chunks = SIDE / ChunkedMap.CHUNK;
+        int x = next % chunks * ChunkedMap.CHUNK;
+        int y = next / chunks * ChunkedMap.CHUNK;
+        next++;
+        return m.mark(x, y);
+    }
+
+    @Benchmark
+    public int look()
+    {
+        int sum = 0;
+        for (int y = 0; y < ChunkedMap.CHUNK; y++)
+            for (int x = 0; x < ChunkedMap.CHUNK; x++)
+                sum += m.look(x, y);
+        return sum;
+    }
+}
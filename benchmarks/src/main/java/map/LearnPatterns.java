@@ -0,0 +1,69 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import sweeper.SweeperAlgo;
+
+/**
+ * Plays games with SweeperAlgo and writes the window patterns it
+ * learned, together with those stored with it, to a file.  The file
+ * can replace strategies/src/main/resources/sweeper/patterns.bin, so
+ * later runs look the patterns up instead of working them out.
+ *
+ * @see sweeper.PatternTable
+ */
+public class LearnPatterns
+{
+    /**
+     * Entry point.
+     *
+     * @param args the board, one of the names of Board, the number of
+     *             games and the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String args[]) throws IOException
+    {
+        if (args.length != 3)
+        {
+            System.out.println("Usage: java -cp benchmarks.jar"
+                    + " map.LearnPatterns board games file");
+            return;
+        }
+        Board board = Board.valueOf(args[0]);
+        int games = Integer.parseInt(args[1]);
+
+        Trace.level(Trace.OFF);
+        SweeperAlgo s = new SweeperAlgo();
+        for (int g = 0; g < games; g++)
+            s.play(board.map(Board.SEED + g));
+
+        try (OutputStream out = new FileOutputStream(args[2]))
+        {
+            s.patterns().write(out);
+        }
+        System.out.println("Learned " + s.patterns().learned()
+                + " patterns in " + games + " games");
+    }
+}
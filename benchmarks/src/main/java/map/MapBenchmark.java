@@ -0,0 +1,155 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the operations a strategy calls on a mine map.  The probe
+ * benchmarks probe every cell without a mine, one cell at a time and
+ * in a single batch, so each operation is a whole board.  A probe
+ * changes the map, so these benchmarks take their maps from {@link
+ * Unprobed}, which makes BATCH unprobed copies of the same map before
+ * each invocation, outside the measured time.  Each invocation probes
+ * them all, so the cost of the setup is spread over BATCH operations.
+ * The look benchmarks read every cell of a map that has been probed
+ * everywhere but the mines, and have no setup per invocation.
+ *
+ * @see Map
+ * @see MineMap
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark
+{
+    /**
+     * The number of maps probed by each invocation of a probe
+     * benchmark.
+     */
+    static final int BATCH = 16;
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "LARGE"})
+    Board board;
+
+    private int safe[];     // Indices of the cells without a mine
+    private int results[];
+    private MineMap swept;  // Probed everywhere but the mines
+
+    /**
+     * Maps not yet probed, made again before each invocation of the
+     * probe benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class Unprobed
+    {
+        final MineMap maps[] = new MineMap[BATCH];
+
+        @Setup(Level.Invocation)
+        public void setup(MapBenchmark b)
+        {
+            for (int i = 0; i < BATCH; i++)
+                maps[i] = b.board.map(Board.SEED);
+        }
+    }
+
+    @Setup
+    public void setup()
+    {
+        MineMap m = board.map(Board.SEED);
+        int n = 0;
+
+        safe = new int[board.rows * board.columns];
+        for (int y = 0; y < board.rows; y++)
+            for (int x = 0; x < board.columns; x++)
+                if (!m.mine(x, y))
+                    safe[n++] = y * board.columns + x;
+        safe = Arrays.copyOf(safe, n);
+        results = new int[board.rows * board.columns];
+
+        swept = board.map(Board.SEED);
+        swept.probe(safe, safe.length, results);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void probe(Unprobed u, Blackhole bh)
+    {
+        int columns = board.columns;
+        for (MineMap fresh : u.maps)
+            for (int i = 0; i < safe.length; i++)
+                bh.consume(fresh.probe(safe[i] % columns,
+                                       safe[i] / columns));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void probeBatch(Unprobed u, Blackhole bh)
+    {
+        for (MineMap fresh : u.maps)
+        {
+            fresh.probe(safe, safe.length, results);
+            bh.consume(results);
+        }
+    }
+
+    @Benchmark
+    public void look(Blackhole bh)
+    {
+        for (int y = 0; y < board.rows; y++)
+            for (int x = 0; x < board.columns; x++)
+                bh.consume(swept.look(x, y));
+    }
+
+    @Benchmark
+    public int[] lookRegion()
+    {
+        swept.look(0, 0, board.columns, board.rows, results);
+        return results;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean done()
+    {
+        return swept.done();
+    }
+}
@@ -0,0 +1,121 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a mine map kept in a file, on the large board.  The create
+ * benchmark maps a new file and writes a new map into it, each time
+ * in a fresh file from {@link Fresh}, and the look benchmark reads
+ * every cell of one map, so it can be compared with the look
+ * benchmark of MapBenchmark.  Opening a map on its own is not
+ * measured: it takes well under a millisecond, and a mapping is only
+ * released when its buffer is collected, so mapping a file that often
+ * runs out of mappings first.  The create benchmark collects the maps
+ * it made after each invocation, outside the measured time, for the
+ * same reason.
+ *
+ * @see MappedMap
+ * @see MapBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedMapBenchmark
+{
+    private static final Board board = Board.LARGE;
+
+    private Path file;
+    private MappedMap m;
+    private int results[];
+
+    @Setup
+    public void setup() throws IOException
+    {
+        file = Files.createTempFile("pgms", ".map");
+        m = MappedMap.create(file, board.mines, board.rows, board.columns,
+                Board.SEED);
+        results = new int[board.rows * board.columns];
+    }
+
+    @TearDown
+    public void teardown() throws IOException
+    {
+        Files.delete(file);
+    }
+
+    /**
+     * A new file for each invocation of the create benchmark, deleted
+     * after it.
+     */
+    @State(Scope.Thread)
+    public static class Fresh
+    {
+        Path file;
+
+        @Setup(Level.Invocation)
+        public void setup() throws IOException
+        {
+            file = Files.createTempFile("pgms", ".map");
+        }
+
+        @TearDown(Level.Invocation)
+        public void teardown() throws IOException
+        {
+            Files.delete(file);
+            System.gc();        // Release the mappings of the map made
+        }
+    }
+
+    @Benchmark
+    public MappedMap create(Fresh f) throws IOException
+    {
+        return MappedMap.create(f.file, board.mines, board.rows,
+                board.columns, Board.SEED);
+    }
+
+    @Benchmark
+    public int[] lookRegion()
+    {
+        m.look(0, 0, board.columns, board.rows, results);
+        return results;
+    }
+}
@@ -0,0 +1,79 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of games a strategy plays per second, the
+ * way a tournament plays them: one strategy instance plays game
+ * after game, each on a new mine map.  The maps come from a fixed
+ * sequence of seeds, so every run plays the same games.  Tracing
+ * is turned off, as it is for a tournament.
+ *
+ * @see Tournament
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyBenchmark
+{
+    @Param({"sweeper.SweeperAlgo"})
+    String strategy;
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT"})
+    Board board;
+
+    private Strategy s;
+    private SplittableRandom seeds;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        Trace.level(Trace.OFF);
+        s = (Strategy) Class.forName(strategy).getDeclaredConstructor().newInstance();
+        seeds = new SplittableRandom(Board.SEED);
+    }
+
+    @Benchmark
+    public boolean play()
+    {
+        MineMap m = board.map(seeds.nextLong());
+        s.play(m);
+        return m.won();
+    }
+}
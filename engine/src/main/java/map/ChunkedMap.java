@@ -0,0 +1,595 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+/**
+ * The class ChunkedMap implements a mine map too large to hold in
+ * memory.  The map is split into square chunks of CHUNK by CHUNK
+ * cells.  The mines of a chunk are drawn from a generator seeded by
+ * the seed of the map and the position of the chunk, so they can be
+ * drawn again at any time, and a chunk is only built when one of its
+ * cells is first probed, marked or opened.  Looking at a cell of a
+ * chunk that has not been built shows it unprobed. <p>
+ * A chunk is resolved when every cell without a mine in it has been
+ * probed and every mine has been marked.  Its state then follows
+ * from its mines, so the least recently used resolved chunks are
+ * dropped once there are more than the map keeps, and are built
+ * again, resolved, when next used.  Memory is then proportional to
+ * the chunks on the frontier, plus a bit for every dropped chunk,
+ * kept in pages of PAGE by PAGE chunks. <p>
+ * Every chunk holds the same share of mines, so the density, not
+ * the number of mines, is given.  Cell indices of the batched
+ * operations are ints, so on a map with more cells than an int can
+ * count, only the first rows can be reached by index; every cell can
+ * be reached by its coordinates.
+ * @see MineMap
+ */
+public class ChunkedMap implements Map {
+
+  /**
+   * The number of rows and of columns of a chunk.
+   */
+  public static final int CHUNK = 64;
+
+  /* The number of rows and of columns of chunks in a page of the
+   * bitmap of dropped chunks, one long per row.
+   */
+  private static final int PAGE = 64;
+
+  static final int COUNT = 0x0f;	// Mask for the adjacent mine count
+  static final int MINE = 0x10;		// Cell contains a mine
+  static final int MARK = 0x20;		// Cell is marked
+  static final int OPEN = 0x40;		// Cell has been probed
+
+  private final int r;			// Rows
+  private final int c;			// Columns
+  private final double density;		// Mines per cell
+  private final long seed;
+  private final SplittableRandom random; // Answers pick
+  private final int keep;		// Resolved chunks kept in memory
+
+  private long mmm;			// Mines minus marks
+  private long safe_unprobed;
+  private boolean victory = false;
+  private boolean finished = false;
+  private boolean probed = false;
+
+  /* The chunks in memory, and of those, the resolved ones from the
+   * least to the most recently used.  The resolved chunks that were
+   * dropped are kept as a bitmap, by page, so they are built resolved
+   * again.
+   */
+  private final HashMap<Long, Chunk> chunks = new HashMap<Long, Chunk>();
+  private final LinkedHashMap<Long, Chunk> resolved
+    = new LinkedHashMap<Long, Chunk>(16, 0.75f, true);
+  private final HashMap<Long, long[]> dropped = new HashMap<Long, long[]>();
+  private long dropped_chunks;
+
+  private long queue[] = new long[64];	// Cells waiting to be opened
+
+  /**
+   * Create a chunked mine map that keeps up to 1024 resolved chunks.
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @param density     fraction of the cells that contain a mine
+   * @param seed        seed from which the mines of every chunk,
+   *                    and the picks, are drawn
+   * @return 		a chunked mine map
+   */
+  ChunkedMap(int rows, int columns, double density, long seed) {
+    this(rows, columns, density, seed, 1024);
+  }
+
+  /**
+   * Create a chunked mine map.
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @param density     fraction of the cells that contain a mine
+   * @param seed        seed from which the mines of every chunk,
+   *                    and the picks, are drawn
+   * @param keep        resolved chunks kept in memory, at least one
+   * @return 		a chunked mine map
+   */
+  ChunkedMap(int rows, int columns, double density, long seed, int keep) {
+    if (rows <= 0 || columns <= 0 || !(density >= 0 && density < 1)
+	|| keep < 1)
+      throw new IllegalArgumentException("bad chunked map");
+    r = rows;
+    c = columns;
+    this.density = density;
+    this.seed = seed;
+    this.keep = keep;
+    random = new SplittableRandom(seed);
+
+    /* At most four shapes of chunk: whole ones, and those cut by
+     * the last column, the last row, or both.
+     */
+    long cx = c / CHUNK, cy = r / CHUNK;
+    int w = c % CHUNK, h = r % CHUNK;
+    long mines = cx * cy * mines(CHUNK, CHUNK)
+      + cy * mines(w, CHUNK) + cx * mines(CHUNK, h) + mines(w, h);
+    mmm = mines;
+    safe_unprobed = (long) r * c - mines;
+    if (safe_unprobed == 0) {
+      finished = true;
+      victory = true;
+    }
+  }
+
+  /* The number of mines in a chunk of w by h cells */
+  private int mines(int w, int h) {
+    return (int) Math.round(w * h * density);
+  }
+
+  /**
+   * Pick a number at random.
+   * @param n           a positive number
+   * @return            a nonnegative number less than n
+   */
+  public int pick(int n) {
+    if (n <= 0)
+      throw new IllegalArgumentException("n must be positive");
+    return random.nextInt(n);
+  }
+
+  /**
+   * Provide the seed this map was created from.
+   */
+  public long seed() {
+    return seed;
+  }
+
+  /**
+   * Provide the number of chunks in memory.
+   */
+  public int chunks() {
+    return chunks.size();
+  }
+
+  public boolean won() {
+    return victory;
+  }
+
+  public boolean done() {
+    return finished;
+  }
+
+  public boolean probed() {
+    return probed;
+  }
+
+  /* The state of a chunk in memory */
+  private static final class Chunk {
+    final long key;
+    final byte cells[] = new byte[CHUNK * CHUNK]; // As in MineMap
+    int left;			// Safe cells unprobed plus mines unmarked
+
+    Chunk(long key) {
+      this.key = key;
+    }
+  }
+
+  private static long key(int cx, int cy) {
+    return (long) cy << 32 | cx & 0xffffffffL;
+  }
+
+  /* The chunk holding cell (x, y), which must exist.  A chunk not in
+   * memory is built when create is true, or when it was dropped;
+   * otherwise null is returned.
+   */
+  private Chunk chunk(int x, int y, boolean create) {
+    int cx = x / CHUNK, cy = y / CHUNK;
+    Long key = key(cx, cy);
+    Chunk k = chunks.get(key);
+    if (k != null) {
+      if (k.left == 0)
+	resolved.get(key);	// Now the most recently used
+      return k;
+    }
+    boolean solved = undrop(key);
+    if (!solved && !create)
+      return null;
+    k = build(cx, cy, solved);
+    chunks.put(key, k);
+    if (k.left == 0)
+      resolve(k);
+    return k;
+  }
+
+  /* Build a chunk from its mines and those of the chunks around it,
+   * which are needed for the counts of its edges.
+   */
+  private Chunk build(int cx, int cy, boolean solved) {
+    Chunk k = new Chunk(key(cx, cy));
+    long around[][][] = new long[3][3][];
+    for (int j = 0; j < 3; j++)
+      for (int i = 0; i < 3; i++)
+	around[j][i] = layout(cx + i - 1, cy + j - 1);
+    long rows[] = around[1][1];
+    int w = Math.min(CHUNK, c - cx * CHUNK);
+    int h = Math.min(CHUNK, r - cy * CHUNK);
+    for (int y = 0; y < h; y++)
+      for (int x = 0; x < w; x++) {
+	int n = 0;
+	for (int yw = y - 1; yw <= y + 1; yw++)
+	  for (int xw = x - 1; xw <= x + 1; xw++)
+	    if ((xw != x || yw != y) && mine(around, xw, yw))
+	      n++;
+	int cell = n;
+	boolean mine = (rows[y] & 1L << x) != 0;
+	if (mine)
+	  cell |= solved ? MINE | MARK : MINE;
+	else if (solved)
+	  cell |= OPEN;
+	k.cells[y * CHUNK + x] = (byte) cell;
+      }
+    k.left = solved ? 0 : w * h;
+    return k;
+  }
+
+  /* Is there a mine at (x, y) of the chunk in the middle of around,
+   * where x and y may be one past either edge?
+   */
+  private static boolean mine(long around[][][], int x, int y) {
+    int i = 1, j = 1;
+    if (x < 0) {
+      i = 0;
+      x += CHUNK;
+    }
+    else if (x >= CHUNK) {
+      i = 2;
+      x -= CHUNK;
+    }
+    if (y < 0) {
+      j = 0;
+      y += CHUNK;
+    }
+    else if (y >= CHUNK) {
+      j = 2;
+      y -= CHUNK;
+    }
+    long rows[] = around[j][i];
+    return rows != null && (rows[y] & 1L << x) != 0;
+  }
+
+  /* The mines of chunk (cx, cy), one long per row, or null if the
+   * chunk is not on the map.  Mines are placed with Floyd's sampling
+   * algorithm, using a generator seeded from the map's seed and the
+   * chunk's position.
+   */
+  private long[] layout(int cx, int cy) {
+    if (cx < 0 || cy < 0 || (long) cx * CHUNK >= c || (long) cy * CHUNK >= r)
+      return null;
+    int w = Math.min(CHUNK, c - cx * CHUNK);
+    int h = Math.min(CHUNK, r - cy * CHUNK);
+    SplittableRandom g = new SplittableRandom(mix(seed ^ mix(key(cx, cy))));
+    long rows[] = new long[CHUNK];
+    int n = w * h;
+    for (int j = n - mines(w, h); j < n; j++) {
+      int i = g.nextInt(j + 1);
+      if ((rows[i / w] & 1L << i % w) != 0) // Taken, so j is not
+	i = j;
+      rows[i / w] |= 1L << i % w;
+    }
+    return rows;
+  }
+
+  /* Scramble a long, so nearby chunks get unrelated generators */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /* Note that a chunk has become resolved, dropping the least
+   * recently used resolved chunk when too many are kept.
+   */
+  private void resolve(Chunk k) {
+    resolved.put(k.key, k);
+    if (resolved.size() > keep) {
+      Iterator<Chunk> it = resolved.values().iterator();
+      Chunk eldest = it.next();
+      it.remove();
+      chunks.remove(eldest.key);
+      drop(eldest.key);
+    }
+  }
+
+  /* Set the bit of a chunk in the bitmap of dropped chunks */
+  private void drop(long key) {
+    int cx = (int) key, cy = (int) (key >>> 32);
+    Long page = key(cx / PAGE, cy / PAGE);
+    long bits[] = dropped.get(page);
+    if (bits == null) {
+      bits = new long[PAGE];
+      dropped.put(page, bits);
+    }
+    bits[cy % PAGE] |= 1L << cx % PAGE;
+    dropped_chunks++;
+  }
+
+  /* Was a chunk dropped?  If so, clear its bit, as it is being
+   * built again.
+   */
+  private boolean undrop(long key) {
+    int cx = (int) key, cy = (int) (key >>> 32);
+    long bits[] = dropped.get(key(cx / PAGE, cy / PAGE));
+    if (bits == null || (bits[cy % PAGE] & 1L << cx % PAGE) == 0)
+      return false;
+    bits[cy % PAGE] &= ~(1L << cx % PAGE);
+    dropped_chunks--;
+    return true;
+  }
+
+  /* Count one more cell of a chunk resolved, or with less than
+   * zero, one less.
+   */
+  private void left(Chunk k, int change) {
+    if (k.left == 0)
+      resolved.remove(k.key);
+    k.left -= change;
+    if (k.left == 0)
+      resolve(k);
+  }
+
+  private boolean exists(int x, int y) {
+    return x >= 0 && x < c && y >= 0 && y < r;
+  }
+
+  /**
+   * Probe a cell for a mine.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#probe(int, int)
+   */
+  public int probe(int x, int y) {
+    if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    if (finished)
+      return look(x, y);
+    Chunk k = chunk(x, y, true);
+    int i = y % CHUNK * CHUNK + x % CHUNK;
+    int cell = k.cells[i];
+    if ((cell & MARK) != 0)
+      return value(cell);
+    if ((cell & MINE) != 0) {
+      k.cells[i] = (byte)(cell | OPEN);
+      finished = true;
+      return BOOM;
+    }
+    probed = true;
+    if ((cell & OPEN) == 0) {
+      k.cells[i] = (byte)(cell | OPEN);
+      left(k, 1);
+      if (--safe_unprobed == 0) {
+	finished = true;
+	victory = true;
+      }
+    }
+    return cell & COUNT;
+  }
+
+  /**
+   * Look at a cell.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#look(int, int)
+   */
+  public int look(int x, int y) {
+    if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    Chunk k = chunk(x, y, false);
+    if (k == null)
+      return UNPROBED;
+    return value(k.cells[y % CHUNK * CHUNK + x % CHUNK]);
+  }
+
+  /* What look reports for a cell in the given state */
+  private static int value(int cell) {
+    if ((cell & MARK) != 0)
+      return MARKED;
+    else if ((cell & OPEN) == 0)
+      return UNPROBED;
+    else if ((cell & MINE) != 0)
+      return BOOM;
+    else
+      return cell & COUNT;
+  }
+
+  /**
+   * Mark a cell.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#mark(int, int)
+   */
+  public int mark(int x, int y) {
+    if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    if (finished)
+      return look(x, y);
+    Chunk k = chunk(x, y, true);
+    int i = y % CHUNK * CHUNK + x % CHUNK;
+    int cell = k.cells[i];
+    if ((cell & (MARK | OPEN)) != 0)
+      return value(cell);
+    mmm--;
+    k.cells[i] = (byte)(cell | MARK);
+    if ((cell & MINE) != 0)
+      left(k, 1);
+    return MARKED;
+  }
+
+  /**
+   * Unmark a cell.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#unmark(int, int)
+   */
+  public int unmark(int x, int y) {
+    if (finished || !exists(x, y))
+      return look(x, y);
+    Chunk k = chunk(x, y, false);
+    if (k == null)
+      return UNPROBED;
+    int i = y % CHUNK * CHUNK + x % CHUNK;
+    int cell = k.cells[i];
+    if ((cell & MARK) == 0)
+      return value(cell);
+    mmm++;
+    k.cells[i] = (byte)(cell & ~MARK);
+    if ((cell & MINE) != 0)
+      left(k, -1);
+    return UNPROBED;
+  }
+
+  /**
+   * Open a cell, as in the classic game.  An opening stops once
+   * <code>opened</code> is full, leaving the rest of its region
+   * unprobed.  The index of a cell that an int cannot hold is
+   * stored as -1.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @param opened   receives the indices of the probed cells
+   * @return         the number of cells probed
+   * @see map.Map#open
+   */
+  public int open(int x, int y, int opened[]) {
+    if (finished || !exists(x, y))
+      return 0;
+    int cell = look(x, y);
+    int n = 0;
+    int tail = 0;
+    if (cell == MARKED || opened.length == 0)
+      return 0;
+    else if (cell == UNPROBED) {
+      opened[n++] = index(x, y);
+      if (probe(x, y) != 0)	// A mine or a number ends the opening
+	return n;
+      queue[tail++] = (long) y << 32 | x;
+    }
+    else if (cell == 0)
+      queue[tail++] = (long) y << 32 | x;
+    /* Breadth first search of the cells with no adjacent mines */
+    for (int head = 0; head < tail && n < opened.length; head++) {
+      int qx = (int) queue[head];
+      int qy = (int) (queue[head] >>> 32);
+      int y0 = Math.max(0, qy - 1);
+      int y1 = Math.min(r - 1, qy + 1);
+      int x0 = Math.max(0, qx - 1);
+      int x1 = Math.min(c - 1, qx + 1);
+      for (int yw = y0; yw <= y1; yw++)
+	for (int xw = x0; xw <= x1 && n < opened.length; xw++)
+	  if (look(xw, yw) == UNPROBED) {
+	    opened[n++] = index(xw, yw);
+	    if (probe(xw, yw) == 0) {
+	      if (tail == queue.length)
+		queue = Arrays.copyOf(queue, 2 * tail);
+	      queue[tail++] = (long) yw << 32 | xw;
+	    }
+	  }
+    }
+    return n;
+  }
+
+  /* The batch index of cell (x, y), or -1 if it is too large */
+  private int index(int x, int y) {
+    long i = (long) y * c + x;
+    return i <= Integer.MAX_VALUE ? (int) i : -1;
+  }
+
+  /**
+   * Probe several cells.
+   * @param indices  indices of the cells to probe
+   * @param n        number of cells to probe
+   * @param results  receives the result of each probe
+   * @see map.Map#probe(int[], int, int[])
+   */
+  public void probe(int indices[], int n, int results[]) {
+    for (int k = 0; k < n; k++) {
+      int i = indices[k];
+      results[k] = i < 0 ? OUT_OF_BOUNDS : probe(i % c, i / c);
+    }
+  }
+
+  /**
+   * Mark several cells.
+   * @param indices  indices of the cells to mark
+   * @param n        number of cells to mark
+   * @param results  receives the result of each mark, or null
+   * @see map.Map#mark(int[], int, int[])
+   */
+  public void mark(int indices[], int n, int results[]) {
+    for (int k = 0; k < n; k++) {
+      int i = indices[k];
+      int q = i < 0 ? OUT_OF_BOUNDS : mark(i % c, i / c);
+      if (results != null)
+	results[k] = q;
+    }
+  }
+
+  /**
+   * Look at a rectangle of cells.
+   * @param x        x coordinate of the lower left cell
+   * @param y        y coordinate of the lower left cell
+   * @param width    number of columns in the rectangle
+   * @param height   number of rows in the rectangle
+   * @param results  receives <code>width * height</code> results
+   * @see map.Map#look(int, int, int, int, int[])
+   */
+  public void look(int x, int y, int width, int height, int results[]) {
+    for (int j = 0; j < height; j++)
+      for (int i = 0; i < width; i++)
+	results[j * width + i] = look(x + i, y + j);
+  }
+
+  /**
+   * Provide the number of mines minus the number of marks in this
+   * mine map, or Integer.MAX_VALUE if it is larger.
+   */
+  public int mines_minus_marks() {
+    return (int) Math.min(mmm, Integer.MAX_VALUE);
+  }
+
+  public int rows() {
+    return r;
+  }
+
+  public int columns() {
+    return c;
+  }
+
+  /**
+   * Display the chunks in memory on the standard output stream.
+   * Used only for debugging.
+   */
+  public void display() {
+    System.out.println(c + "x" + r + " map, " + chunks.size()
+		       + " chunks in memory, " + resolved.size()
+		       + " of them resolved, " + dropped_chunks
+		       + " dropped");
+  }
+}
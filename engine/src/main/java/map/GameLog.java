@@ -0,0 +1,275 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The class GameLog describes the binary log of the games a strategy
+ * played, and reads it back.  A log is a sequence of games, and a
+ * game is
+ * <pre>
+ * game   = magic version seed mines rows columns start op* end
+ * op     = varint((zigzag(cell - previous cell) &lt;&lt; 3) | code)
+ * end    = varint(END)
+ * </pre>
+ * The magic number is an int and the seed a long, both big endian,
+ * and the version is a byte.  The mines, rows, columns and start are
+ * unsigned varints, seven bits to a byte with the low bits first.
+ * The start tells how the map protects its first probe.
+ * A cell is the index y * columns + x of the map's batched
+ * operations, and is encoded as the difference from the cell of the
+ * previous operation, which starts at 0.  Since strategies mostly
+ * work near their last move, most operations take one or two bytes.
+ * Only operations that can change the map are logged; looks and
+ * operations on cells outside the map are not. <p>
+ * The seed, mines, rows, columns and start recreate the mine map,
+ * which places the same mines when its first probe is replayed, so
+ * a game is played again by applying its operations to a new
+ * MineMap.
+ *
+ * @see RecordingMap
+ * @see MineMap
+ */
+public final class GameLog
+{
+    /**
+     * Starts every game, "PGML".
+     */
+    public static final int MAGIC = 0x50474d4c;
+
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * A probe of a cell.
+     */
+    public static final int PROBE = 0;
+
+    /**
+     * A mark of a cell.
+     */
+    public static final int MARK = 1;
+
+    /**
+     * An unmark of a cell.
+     */
+    public static final int UNMARK = 2;
+
+    /**
+     * Opening the region around a cell.
+     */
+    public static final int OPEN = 3;
+
+    /**
+     * The end of a game.
+     */
+    public static final int END = 7;
+
+    private GameLog()
+    {
+    }
+
+    /**
+     * The class Reader reads the games of a log one at a time.
+     */
+    public static final class Reader
+    {
+        private final ReadableByteChannel in;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        private boolean eof;
+
+        private long seed;
+        private int mines;
+        private int rows;
+        private int columns;
+        private int start;
+        private int cell;
+        private boolean ended = true;
+
+        /**
+         * Create a reader.
+         *
+         * @param in the channel the log is read from
+         */
+        public Reader(ReadableByteChannel in)
+        {
+            this.in = in;
+            buffer.flip();
+        }
+
+        /**
+         * Move to the next game, skipping what is left of this one.
+         *
+         * @return false at the end of the log
+         * @throws IOException if the log cannot be read or is not a
+         *                     log
+         */
+        public boolean next() throws IOException
+        {
+            while (!ended)
+                op();
+            if (!fill(1))
+                return false;
+            if (!fill(13) || buffer.getInt() != MAGIC)
+                throw new IOException("not a game log");
+            int version = buffer.get();
+            if (version != VERSION)
+                throw new IOException("unknown game log version " + version);
+            seed = buffer.getLong();
+            mines = (int) varint();
+            rows = (int) varint();
+            columns = (int) varint();
+            start = (int) varint();
+            cell = 0;
+            ended = false;
+            return true;
+        }
+
+        public long seed()
+        {
+            return seed;
+        }
+
+        public int mines()
+        {
+            return mines;
+        }
+
+        public int rows()
+        {
+            return rows;
+        }
+
+        public int columns()
+        {
+            return columns;
+        }
+
+        /**
+         * Provide how the map of the game protects its first probe.
+         *
+         * @see MineMap#start()
+         */
+        public int start()
+        {
+            return start;
+        }
+
+        /**
+         * Read the next operation of the game.
+         *
+         * @return the code of the operation, END at the end of the game
+         * @throws IOException if the log cannot be read
+         */
+        public int op() throws IOException
+        {
+            if (ended)
+                return END;
+            long v = varint();
+            int code = (int) (v & 7);
+            if (code == END)
+            {
+                ended = true;
+                return END;
+            }
+            long delta = v >>> 3;
+            cell += (int) ((delta >>> 1) ^ -(delta & 1));
+            return code;
+        }
+
+        /**
+         * Provide the cell of the last operation read.
+         */
+        public int cell()
+        {
+            return cell;
+        }
+
+        /**
+         * Play the rest of the game again on a new mine map.
+         *
+         * @return the mine map in the state the game left it
+         * @throws IOException if the log cannot be read
+         */
+        public MineMap replay() throws IOException
+        {
+            MineMap m = new MineMap(mines, rows, columns, seed, start);
+            int opened[] = new int[rows * columns];
+            for (int code = op(); code != END; code = op())
+            {
+                int x = cell % columns;
+                int y = cell / columns;
+                switch (code)
+                {
+                    case PROBE:
+                        m.probe(x, y);
+                        break;
+                    case MARK:
+                        m.mark(x, y);
+                        break;
+                    case UNMARK:
+                        m.unmark(x, y);
+                        break;
+                    case OPEN:
+                        m.open(x, y, opened);
+                        break;
+                    default:
+                        throw new IOException("unknown game log operation "
+                                + code);
+                }
+            }
+            return m;
+        }
+
+        private long varint() throws IOException
+        {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7)
+            {
+                if (!fill(1))
+                    throw new EOFException("game log ends inside a game");
+                int b = buffer.get();
+                v |= (long) (b & 0x7f) << shift;
+                if (b >= 0)
+                    return v;
+            }
+            throw new IOException("bad varint in game log");
+        }
+
+        /* Make at least n bytes available, unless the log ends first. */
+        private boolean fill(int n) throws IOException
+        {
+            if (buffer.remaining() >= n)
+                return true;
+            buffer.compact();
+            while (buffer.position() < n && !eof)
+                eof = in.read(buffer) < 0;
+            buffer.flip();
+            return buffer.remaining() >= n;
+        }
+    }
+}
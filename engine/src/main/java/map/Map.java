@@ -140,6 +140,68 @@ public interface Map {
    */
   int unmark(int x, int y);
 
+  /**
+   * Open a cell, as in the classic game.
+   * The cell is probed, and if it has no adjacent mines, every
+   * unmarked neighbor is probed too, and so on for each of those
+   * with no adjacent mines.  If the cell has already been probed
+   * and has no adjacent mines, the opening starts from its neighbors.
+   * The indices of the cells this probes, in the form used by the
+   * batch <code>probe</code>, are stored in <code>cells</code>.
+   * <ul>
+   * <li> If the game is finished, or the cell does not exist or is
+   * marked, nothing is probed.
+   * <li>If the cell has a mine, it is the only cell probed
+   * and the game is lost.
+   * </ul>
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @param cells    receives the indices of the probed cells, so it
+   *                 needs room for every cell in the map
+   * @return         the number of cells probed
+   */
+  int open(int x, int y, int cells[]);
+
+  /**
+   * Probe several cells.
+   * The cells are given by their index, which for cell (x, y) is
+   * <code>y * columns() + x</code>.  The effect is that of probing
+   * <code>cells[0]</code> through <code>cells[n - 1]</code> in order,
+   * and the result of each probe is stored at the same position in
+   * <code>results</code>.  An index that names no cell gives
+   * <code>OUT_OF_BOUNDS</code>.
+   * @param cells    indices of the cells to probe
+   * @param n        number of cells to probe
+   * @param results  receives the result of each probe
+   * @see map.Map#probe(int, int)
+   */
+  void probe(int cells[], int n, int results[]);
+
+  /**
+   * Mark several cells.
+   * The cells are given by their index as for the batch
+   * <code>probe</code>.  The effect is that of marking
+   * <code>cells[0]</code> through <code>cells[n - 1]</code> in order.
+   * @param cells    indices of the cells to mark
+   * @param n        number of cells to mark
+   * @param results  receives the result of each mark, or null
+   * @see map.Map#mark(int, int)
+   */
+  void mark(int cells[], int n, int results[]);
+
+  /**
+   * Look at a rectangle of cells.
+   * The result of looking at cell (x + i, y + j) is stored in
+   * <code>results[j * width + i]</code>.
+   * @param x        x coordinate of the lower left cell
+   * @param y        y coordinate of the lower left cell
+   * @param width    number of columns in the rectangle
+   * @param height   number of rows in the rectangle
+   * @param results  receives <code>width * height</code> results
+   * @see map.Map#look(int, int)
+   */
+  void look(int x, int y, int width, int height, int results[]);
+
   /**
    * Provide the number of mines minus the 
    * number of marks in this mine map.
@@ -164,6 +226,9 @@ public interface Map {
 
   /**
    * Pick a number at random.
+   * The numbers come from the generator the mine map was created
+   * with, so a strategy that takes its random choices from pick
+   * plays the same game again on a map created from the same seed.
    * @param n           a positive number (not checked)
    * @return            a nonnegative number less than n
    */
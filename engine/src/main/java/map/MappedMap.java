@@ -0,0 +1,622 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The class MappedMap implements a mine map kept in a file, which is
+ * mapped into memory instead of read onto the heap.  Each cell takes
+ * one byte, as in MineMap, so a map may be as large as the disk and
+ * the address space allow, and the garbage collector never sees it.
+ * The state of the game is written to the file as it is played, so
+ * the file can be opened again, at once, to look at the game or to
+ * play on. <p>
+ * The file is a header followed by the cells, row by row:
+ * <pre>
+ * header = magic version rows columns seed mines mmm unprobed flags
+ * </pre>
+ * The magic number, version, rows and columns are ints, the seed and
+ * the counts are longs, and the flags are an int, all big endian,
+ * padded to HEADER bytes.  A new map is made in one pass over the
+ * cells in order, which places the mines, counts the mines next to
+ * each cell, and writes a row at a time, holding only three rows on
+ * the heap. <p>
+ * Cell indices of the batched operations are ints, so on a map with
+ * more cells than an int can count, only the first rows can be
+ * reached by index; every cell can be reached by its coordinates. <p>
+ * PGMS plays a game on a new map file with -m, and on a file left
+ * part played with -o.  The map itself is limited only by the disk,
+ * but a strategy that keeps state for every cell, as SweeperAlgo
+ * does in its arrays, still needs the heap for the whole board, and
+ * cannot index more cells than an int can count, so PGMS refuses
+ * boards the strategy cannot allocate.
+ * @see MineMap
+ */
+public class MappedMap implements Map {
+
+  /**
+   * Starts every mapped map file, "PGMF".
+   */
+  public static final int MAGIC = 0x50474d46;
+
+  /**
+   * The version of the file format.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The size of the header, which the cells follow.
+   */
+  public static final int HEADER = 64;
+
+  static final int COUNT = 0x0f;	// Mask for the adjacent mine count
+  static final int MINE = 0x10;		// Cell contains a mine
+  static final int MARK = 0x20;		// Cell is marked
+  static final int OPEN = 0x40;		// Cell has been probed
+
+  /* Where the state of the game is kept in the header */
+  private static final int MMM_AT = 32;
+  private static final int UNPROBED_AT = 40;
+  private static final int FLAGS_AT = 48;
+
+  private static final int FINISHED = 1;
+  private static final int VICTORY = 2;
+  private static final int PROBED = 4;
+
+  /* A buffer can map at most 2 GB, so the cells are mapped in
+   * segments of 1 GB.
+   */
+  private static final int SHIFT = 30;
+  private static final long SEGMENT = 1L << SHIFT;
+
+  private final int r;			// Rows
+  private final int c;			// Columns
+  private final long seed;
+  private final MappedByteBuffer header;
+  private final MappedByteBuffer segments[];
+  private final SplittableRandom random; // Answers pick
+
+  private long mmm;			// Mines minus marks
+  private long safe_unprobed;
+  private int flags;
+
+  private long queue[] = new long[64];	// Cells waiting to be opened
+
+  private MappedMap(FileChannel ch, int rows, int columns, long seed)
+    throws IOException {
+    r = rows;
+    c = columns;
+    this.seed = seed;
+    random = new SplittableRandom(seed);
+    header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+    long cells = (long) r * c;
+    segments = new MappedByteBuffer[(int) ((cells + SEGMENT - 1) >>> SHIFT)];
+    for (int s = 0; s < segments.length; s++) {
+      long start = (long) s << SHIFT;
+      segments[s] = ch.map(FileChannel.MapMode.READ_WRITE, HEADER + start,
+			   Math.min(SEGMENT, cells - start));
+    }
+  }
+
+  /**
+   * Create a file holding a new mine map, replacing any file there.
+   * Maps created with the same seed and dimensions have the same
+   * mines, and answer the same sequence of picks.
+   * @param path        the file
+   * @param mines	number of mines in mine map
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @param seed        seed of the random number generator
+   * @return 		a mine map
+   * @throws IOException if the file cannot be written
+   */
+  static MappedMap create(Path path, long mines, int rows, int columns,
+			  long seed) throws IOException {
+    if (rows <= 0 || columns <= 0 || mines < 0 || mines > (long) rows * columns)
+      throw new IllegalArgumentException("bad mapped map");
+    MappedMap m;
+    try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE,
+					   StandardOpenOption.TRUNCATE_EXISTING,
+					   StandardOpenOption.READ,
+					   StandardOpenOption.WRITE)) {
+      m = new MappedMap(ch, rows, columns, seed);
+    }
+    m.header.putInt(0, MAGIC);
+    m.header.putInt(4, VERSION);
+    m.header.putInt(8, rows);
+    m.header.putInt(12, columns);
+    m.header.putLong(16, seed);
+    m.header.putLong(24, mines);
+    m.generate(mines);
+    m.mmm = mines;
+    m.safe_unprobed = (long) rows * columns - mines;
+    m.flags = m.safe_unprobed == 0 ? FINISHED | VICTORY : 0;
+    m.save();
+    return m;
+  }
+
+  /**
+   * Open a file holding a mine map, in the state it was left in.
+   * Picks start again from the seed.
+   * @param path        the file
+   * @return 		a mine map
+   * @throws IOException if the file cannot be read or written, or
+   *                     does not hold a mine map
+   */
+  static MappedMap open(Path path) throws IOException {
+    try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ,
+					   StandardOpenOption.WRITE)) {
+      if (ch.size() < HEADER)
+	throw new IOException("not a mapped map");
+      MappedByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+      if (h.getInt(0) != MAGIC)
+	throw new IOException("not a mapped map");
+      if (h.getInt(4) != VERSION)
+	throw new IOException("unknown mapped map version " + h.getInt(4));
+      int rows = h.getInt(8);
+      int columns = h.getInt(12);
+      if (rows <= 0 || columns <= 0 || ch.size() < HEADER + (long) rows * columns)
+	throw new IOException("mapped map is cut short");
+      MappedMap m = new MappedMap(ch, rows, columns, h.getLong(16));
+      m.mmm = h.getLong(MMM_AT);
+      m.safe_unprobed = h.getLong(UNPROBED_AT);
+      m.flags = h.getInt(FLAGS_AT);
+      return m;
+    }
+  }
+
+  /* Make the cells of a new map in one pass, a row at a time.  Each
+   * row is given its mines a row ahead, so the mines next to each
+   * cell of a row can be counted from the sums of the three rows
+   * around it in each column, and then the row is written whole.
+   */
+  private void generate(long mines) {
+    Sampler mine = new Sampler(new SplittableRandom(seed).split(),
+			       (long) r * c, mines);
+    byte below[] = new byte[c];
+    byte row[] = new byte[c];
+    byte above[] = new byte[c];
+    int sums[] = new int[c + 2];	// Mines in column x - 1, shifted one
+    mine.fill(row);
+    for (int y = 0; y < r; y++) {
+      if (y + 1 < r)
+	mine.fill(above);
+      else
+	Arrays.fill(above, (byte) 0);
+      for (int x = 0; x < c; x++)
+	sums[x + 1] = (below[x] + row[x] + above[x]) >> 4;
+      for (int x = 0; x < c; x++)
+	below[x] = (byte) (row[x]
+			   | sums[x] + sums[x + 1] + sums[x + 2]
+			   - (row[x] >> 4));
+      transfer((long) y * c, below, true);
+      System.arraycopy(row, 0, below, 0, c);
+      byte t[] = row;
+      row = above;
+      above = t;
+    }
+  }
+
+  /* Chooses the cells with mines uniformly at random, in order.  Each
+   * cell gets a mine with the chance of the mines left over the cells
+   * left (Knuth's algorithm S), which is sure to choose them all by
+   * the last cell.  The choice is made without a branch, which could
+   * not be predicted.
+   */
+  private static final class Sampler {
+    private final SplittableRandom g;
+    private long cells;			// Cells not yet passed
+    private long mines;			// Mines not yet chosen
+
+    Sampler(SplittableRandom g, long cells, long mines) {
+      this.g = g;
+      this.cells = cells;
+      this.mines = mines;
+    }
+
+    /* Set the mines of the next row of cells */
+    void fill(byte row[]) {
+      for (int x = 0; x < row.length; x++) {
+	int mine = g.nextDouble() * cells-- < mines ? 1 : 0;
+	mines -= mine;
+	row[x] = (byte) (mine * MINE);
+      }
+    }
+  }
+
+  /* Read or write the cells from index i on, in as few bulk
+   * transfers as the segments allow.
+   */
+  private void transfer(long i, byte cells[], boolean write) {
+    for (int k = 0; k < cells.length; ) {
+      MappedByteBuffer s = segments[(int) (i >>> SHIFT)];
+      int at = (int) (i & (SEGMENT - 1));
+      int n = (int) Math.min(cells.length - k, SEGMENT - at);
+      if (write)
+	s.put(at, cells, k, n);
+      else
+	s.get(at, cells, k, n);
+      k += n;
+      i += n;
+    }
+  }
+
+  private int get(long i) {
+    return segments[(int) (i >>> SHIFT)].get((int) (i & (SEGMENT - 1)));
+  }
+
+  private void put(long i, int cell) {
+    segments[(int) (i >>> SHIFT)].put((int) (i & (SEGMENT - 1)), (byte) cell);
+  }
+
+  /* Write the state of the game to the header */
+  private void save() {
+    header.putLong(MMM_AT, mmm);
+    header.putLong(UNPROBED_AT, safe_unprobed);
+    header.putInt(FLAGS_AT, flags);
+  }
+
+  /**
+   * Write the changes to the map out to the file.  The system does so
+   * anyway in time, so this is only needed to have the file complete
+   * should the system fail.
+   */
+  public void force() {
+    header.force();
+    for (MappedByteBuffer s : segments)
+      s.force();
+  }
+
+  /**
+   * Pick a number at random.
+   * @param n           a positive number
+   * @return            a nonnegative number less than n
+   */
+  public int pick(int n) {
+    if (n <= 0)
+      throw new IllegalArgumentException("n must be positive");
+    return random.nextInt(n);
+  }
+
+  /**
+   * Provide the seed this mine map was created from.
+   */
+  public long seed() {
+    return seed;
+  }
+
+  public boolean won() {
+    return (flags & VICTORY) != 0;
+  }
+
+  public boolean done() {
+    return (flags & FINISHED) != 0;
+  }
+
+  public boolean probed() {
+    return (flags & PROBED) != 0;
+  }
+
+  private boolean exists(int x, int y) {
+    return x >= 0 && x < c && y >= 0 && y < r;
+  }
+
+  /**
+   * Probe a cell for a mine.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#probe(int, int)
+   */
+  public int probe(int x, int y) {
+    if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    else
+      return probe((long) y * c + x);
+  }
+
+  /* Probe the cell with index i, which must exist */
+  private int probe(long i) {
+    int cell = get(i);
+    if (done() || (cell & MARK) != 0)
+      return value(cell);
+    put(i, cell | OPEN);
+    if ((cell & MINE) != 0) {
+      flags |= FINISHED;
+      save();
+      return BOOM;
+    }
+    flags |= PROBED;
+    if ((cell & OPEN) == 0 && --safe_unprobed == 0)
+      flags |= FINISHED | VICTORY;
+    save();
+    return cell & COUNT;
+  }
+
+  /**
+   * Look at a cell.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#look(int, int)
+   */
+  public int look(int x, int y) {
+    if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    else
+      return value(get((long) y * c + x));
+  }
+
+  /* What look reports for a cell in the given state */
+  private static int value(int cell) {
+    if ((cell & MARK) != 0)
+      return MARKED;
+    else if ((cell & OPEN) == 0)
+      return UNPROBED;
+    else if ((cell & MINE) != 0)
+      return BOOM;
+    else
+      return cell & COUNT;
+  }
+
+  /**
+   * Mark a cell.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#mark(int, int)
+   */
+  public int mark(int x, int y) {
+    if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    else
+      return mark((long) y * c + x);
+  }
+
+  /* Mark the cell with index i, which must exist */
+  private int mark(long i) {
+    int cell = get(i);
+    if (!done() && (cell & (MARK | OPEN)) == 0) {
+      mmm--;
+      put(i, cell | MARK);
+      save();
+      return MARKED;
+    }
+    else
+      return value(cell);
+  }
+
+  /**
+   * Unmark a cell.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @see map.Map#unmark(int, int)
+   */
+  public int unmark(int x, int y) {
+    if (done())
+      return look(x, y);
+    else if (!exists(x, y))
+      return OUT_OF_BOUNDS;
+    long i = (long) y * c + x;
+    int cell = get(i);
+    if ((cell & MARK) != 0) {
+      mmm++;
+      put(i, cell & ~MARK);
+      save();
+      return UNPROBED;
+    }
+    else
+      return value(cell);
+  }
+
+  /**
+   * Open a cell, as in the classic game.  An opening stops once
+   * <code>opened</code> is full, leaving the rest of its region
+   * unprobed.  The index of a cell that an int cannot hold is
+   * stored as -1.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @param opened   receives the indices of the probed cells
+   * @return         the number of cells probed
+   * @see map.Map#open
+   */
+  public int open(int x, int y, int opened[]) {
+    if (done() || !exists(x, y) || opened.length == 0)
+      return 0;
+    long i = (long) y * c + x;
+    int cell = get(i);
+    int n = 0;
+    int tail = 0;
+    if ((cell & MARK) != 0)
+      return 0;
+    else if ((cell & OPEN) == 0) {
+      opened[n++] = index(i);
+      if (probe(i) != 0)	// A mine or a number ends the opening
+	return n;
+      queue[tail++] = i;
+    }
+    else if ((cell & (MINE | COUNT)) == 0)
+      queue[tail++] = i;
+    /* Breadth first search of the cells with no adjacent mines */
+    for (int head = 0; head < tail && n < opened.length; head++) {
+      int qx = (int) (queue[head] % c);
+      int qy = (int) (queue[head] / c);
+      int y0 = Math.max(0, qy - 1);
+      int y1 = Math.min(r, qy + 2);
+      int x0 = Math.max(0, qx - 1);
+      int x1 = Math.min(c, qx + 2);
+      for (int yw = y0; yw < y1; yw++)
+	for (int xw = x0; xw < x1 && n < opened.length; xw++) {
+	  long j = (long) yw * c + xw;
+	  if ((get(j) & (MARK | OPEN)) == 0) {
+	    opened[n++] = index(j);
+	    if (probe(j) == 0) {
+	      if (tail == queue.length)
+		queue = Arrays.copyOf(queue, 2 * tail);
+	      queue[tail++] = j;
+	    }
+	  }
+	}
+    }
+    return n;
+  }
+
+  /* The batch index of cell i, or -1 if it is too large */
+  private static int index(long i) {
+    return i <= Integer.MAX_VALUE ? (int) i : -1;
+  }
+
+  /**
+   * Probe several cells.
+   * @param indices  indices of the cells to probe
+   * @param n        number of cells to probe
+   * @param results  receives the result of each probe
+   * @see map.Map#probe(int[], int, int[])
+   */
+  public void probe(int indices[], int n, int results[]) {
+    long size = (long) r * c;
+    for (int k = 0; k < n; k++) {
+      int i = indices[k];
+      results[k] = i < 0 || i >= size ? OUT_OF_BOUNDS : probe((long) i);
+    }
+  }
+
+  /**
+   * Mark several cells.
+   * @param indices  indices of the cells to mark
+   * @param n        number of cells to mark
+   * @param results  receives the result of each mark, or null
+   * @see map.Map#mark(int[], int, int[])
+   */
+  public void mark(int indices[], int n, int results[]) {
+    long size = (long) r * c;
+    for (int k = 0; k < n; k++) {
+      int i = indices[k];
+      int q = i < 0 || i >= size ? OUT_OF_BOUNDS : mark((long) i);
+      if (results != null)
+	results[k] = q;
+    }
+  }
+
+  /**
+   * Look at a rectangle of cells.
+   * @param x        x coordinate of the lower left cell
+   * @param y        y coordinate of the lower left cell
+   * @param width    number of columns in the rectangle
+   * @param height   number of rows in the rectangle
+   * @param results  receives <code>width * height</code> results
+   * @see map.Map#look(int, int, int, int, int[])
+   */
+  public void look(int x, int y, int width, int height, int results[]) {
+    int x0 = Math.max(0, x);	// The part of the rectangle on the map
+    int x1 = Math.min(c, x + width);
+    byte row[] = new byte[Math.max(0, x1 - x0)];
+    for (int j = 0; j < height; j++) {
+      int k = j * width;
+      int yj = y + j;
+      if (yj < 0 || yj >= r || x0 >= x1) {
+	Arrays.fill(results, k, k + width, OUT_OF_BOUNDS);
+	continue;
+      }
+      transfer((long) yj * c + x0, row, false);
+      for (int xi = x; xi < x0; xi++)
+	results[k++] = OUT_OF_BOUNDS;
+      for (int xi = x0; xi < x1; xi++)
+	results[k++] = value(row[xi - x0]);
+      for (int xi = x1; xi < x + width; xi++)
+	results[k++] = OUT_OF_BOUNDS;
+    }
+  }
+
+  /* Direct access to the state of a cell (x, y), which must exist.
+   * Used to study a game, with what the strategy cannot see.
+   */
+
+  boolean mine(int x, int y) {
+    return (get((long) y * c + x) & MINE) != 0;
+  }
+
+  boolean marked(int x, int y) {
+    return (get((long) y * c + x) & MARK) != 0;
+  }
+
+  boolean unprobed(int x, int y) {
+    return (get((long) y * c + x) & OPEN) == 0;
+  }
+
+  /* The number of mines adjacent to the cell */
+  int count(int x, int y) {
+    return get((long) y * c + x) & COUNT;
+  }
+
+  /**
+   * Provide the number of mines minus the number of marks in this
+   * mine map, or Integer.MAX_VALUE if it is larger.
+   */
+  public int mines_minus_marks() {
+    return (int) Math.min(mmm, Integer.MAX_VALUE);
+  }
+
+  public int rows() {
+    return r;
+  }
+
+  public int columns() {
+    return c;
+  }
+
+  /**
+   * Display the mine map on the standard output stream, or only its
+   * size if it is too large to read.  Used only for debugging.
+   */
+  public void display() {
+    if ((long) r * c > 1 << 16) {
+      System.out.println(c + "x" + r + " map, " + mmm
+			 + " mines less marks, " + safe_unprobed
+			 + " cells left to probe");
+      return;
+    }
+    for (int y = 0; y < r; y++) {
+      int z = r - 1 - y;
+      System.out.print(z % 10 + ":");
+      for (int x = 0; x < c; x++)
+	if (marked(x, z))
+	  if (mine(x, z))
+	    System.out.print("-");
+	  else
+	    System.out.print("?");
+	else if (mine(x, z))
+	  System.out.print("X");
+	else if (unprobed(x, z))
+	  System.out.print(" ");
+	else
+	  System.out.print(count(x, z));
+      System.out.println();
+    }
+    System.out.print("  ");
+    for (int x = 0; x < c; x++)
+      System.out.print(x % 10);
+  }
+}
@@ -0,0 +1,601 @@
+package map;
+
+/* Copyright (C) 1995 and 1997 John D. Ramsdell
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The class Map implements a mine map.  A strategy operates on a mine
+ * map. By invoking the operations of probing and marking, the strategy
+ * attempts to place the mine map in a state in which every cell that does
+ * not contain a mine has been probed, without probing a cell that does
+ * contain a mine.
+ * @see Strategy
+ * @version February 1997
+ * @author John D. Ramsdell
+ */
+public class MineMap implements Map {
+
+  int mmm;			// Mines minus marks
+  int r;			// Rows
+  int c;			// Columns
+  
+  /* cells[y * c + x] holds the state of cell (x, y) in one byte:
+   * the number of mines in adjacent cells, and flags telling whether
+   * the cell contains a mine, is marked, or has been probed.
+   * The code maintains the following relation:
+   * a marked cell has not been probed.
+   */
+  byte cells[];
+
+  static final int COUNT = 0x0f;	// Mask for the adjacent mine count
+  static final int MINE = 0x10;		// Cell contains a mine
+  static final int MARK = 0x20;		// Cell is marked
+  static final int OPEN = 0x40;		// Cell has been probed
+
+  /* The number of cells without a mine that have not been probed.
+   * The game is won when it reaches zero.
+   */
+  int safe_unprobed;
+
+  /* The generator used to answer pick, and the one used to place
+   * mines.  They are private to this map, so maps built on different
+   * threads never contend for them.  With START_ANY the mines are
+   * placed at once from the pick generator, as they always were.
+   * Otherwise they are placed from a generator split off at creation,
+   * so picks made before the first probe do not change the mines.
+   */
+  private final SplittableRandom random;
+  private final SplittableRandom placing;
+  private final long seed;
+
+  /**
+   * The first probe may find a mine, as in the original game.
+   */
+  public static final int START_ANY = 0;
+
+  /**
+   * The first probe never finds a mine.
+   */
+  public static final int START_SAFE = 1;
+
+  /**
+   * The first probe never finds a mine, nor a mine next to it, so
+   * it opens a region whenever the map has room for that.
+   */
+  public static final int START_OPEN = 2;
+
+  /* How the first probe is protected.  Unless it is START_ANY, the
+   * mines are placed by the first probe, so that they can avoid it.
+   */
+  private final int start;
+  private boolean placed;
+
+  private MineMap() {
+    random = null;
+    placing = null;
+    seed = 0;
+    start = START_ANY;
+  }
+
+  /**
+   * Create a mine map with a randomly chosen seed.
+   * @param mines	number of mines in mine map
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @return 		a mine map
+   */
+  MineMap(int mines, int rows, int columns) {
+    this(mines, rows, columns, new SplittableRandom().nextLong());
+  }
+
+  /**
+   * Create a mine map from a seed.  Maps created with the same
+   * seed and dimensions have the same mines, and answer the same
+   * sequence of picks.
+   * @param mines	number of mines in mine map
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @param seed        seed of the random number generator
+   * @return 		a mine map
+   */
+  MineMap(int mines, int rows, int columns, long seed) {
+    this(mines, rows, columns, seed, START_ANY);
+  }
+
+  /**
+   * Create a mine map from a seed, protecting the first probe.
+   * With START_SAFE or START_OPEN, no mine is placed until the
+   * first probe, which draws the mines from the cells it leaves
+   * free.  Maps created with the same seed, dimensions and start
+   * have the same mines when first probed at the same cell, whatever
+   * was picked before.
+   * @param mines	number of mines in mine map
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @param seed        seed of the random number generator
+   * @param start       START_ANY, START_SAFE or START_OPEN
+   * @return 		a mine map
+   */
+  MineMap(int mines, int rows, int columns, long seed, int start) {
+    if (start < START_ANY || start > START_OPEN)
+      throw new IllegalArgumentException("unknown start " + start);
+    this.seed = seed;
+    this.start = start;
+    random = new SplittableRandom(seed);
+    placing = start == START_ANY ? random : random.split();
+    mmm = mines;
+    r = rows;
+    c = columns;
+    
+    cells = new byte[r * c];
+    
+    if (mines < 0 || mines > r * c) // Odd parameters
+      finished = true;		// Just punt
+    else {
+      if (start == START_ANY) {
+	place(mines, new int[0], 0);
+	placed = true;
+      }
+      safe_unprobed = r * c - mines;
+      if (safe_unprobed == 0) {	// Nothing left to probe
+	finished = true;
+	victory = true;
+      }
+    }
+  }
+
+  /* Place mines uniformly at random using Floyd's sampling algorithm,
+   * which draws exactly one number per mine no matter how dense the
+   * map is.  The k cells in free, in increasing order, get no mine;
+   * the draws are over the other cells, and skip past the free ones.
+   * Each cell's count of adjacent mines is updated as each mine is
+   * placed.
+   */
+  private void place(int mines, int free[], int k) {
+    int n = r * c - k;
+    for (int j = n - mines; j < n; j++) {
+      int i = skip(placing.nextInt(j + 1), free, k);
+      if ((cells[i] & MINE) != 0) // Taken, so j is not
+	i = skip(j, free, k);
+      cells[i] |= MINE;
+      int x = i % c;
+      int y = i / c;
+      int y0 = Math.max(0, y - 1);
+      int y1 = Math.min(r, y + 2);
+      int x0 = Math.max(0, x - 1);
+      int x1 = Math.min(c, x + 2);
+      for (int yw = y0; yw < y1; yw++)
+	for (int xw = x0; xw < x1; xw++)
+	  if (xw != x || yw != y)
+	    cells[yw * c + xw]++;
+    }
+  }
+
+  /* The cell that is the i-th of those not in free */
+  private static int skip(int i, int free[], int k) {
+    for (int f = 0; f < k && free[f] <= i; f++)
+      i++;
+    return i;
+  }
+
+  /* Place the mines on the first probe, of cell i, keeping them off
+   * the cell, and with START_OPEN off its neighbors too when the
+   * other cells can hold every mine.
+   */
+  private void place_around(int i) {
+    placed = true;
+    int mines = r * c - safe_unprobed;
+    int free[] = new int[9];
+    int k = 0;
+    if (start == START_OPEN) {
+      int x = i % c;
+      int y = i / c;
+      for (int yw = Math.max(0, y - 1); yw < Math.min(r, y + 2); yw++)
+	for (int xw = Math.max(0, x - 1); xw < Math.min(c, x + 2); xw++)
+	  free[k++] = yw * c + xw;
+      if (r * c - k < mines)
+	k = 0;
+    }
+    if (k == 0)
+      free[k++] = i;
+    place(mines, free, k);
+  }
+
+  /**
+   * Pick a number at random.
+   * @param n           a positive number
+   * @return            a nonnegative number less than n
+   */
+  public int pick(int n) {
+    if (n <= 0)
+      throw new IllegalArgumentException("n must be positive");
+    return random.nextInt(n);
+  }
+
+  /**
+   * Provide the seed this mine map was created from.
+   * @see #MineMap(int, int, int, long)
+   */
+  public long seed() {
+    return seed;
+  }
+
+  /**
+   * Provide how the first probe of this mine map is protected,
+   * one of START_ANY, START_SAFE and START_OPEN.
+   */
+  public int start() {
+    return start;
+  }
+  
+  private boolean victory = false;
+  private boolean finished = false;
+  private boolean probed = false;
+  
+  /**
+   * Has this game been won?
+   * A game is won if every cell which does not contain a mine has 
+   * been probed, but no cell with a mine has been probed.
+   */
+  public boolean won() {
+    return victory;
+  }
+
+  /**
+   * Is this game finished?
+   * The game is finished if it has been won or if a cell with a 
+   * mine has been probed.
+   */
+  public boolean done() {
+    return finished;
+  }
+
+  /**
+   * Has this game had at least one successful probe.
+   */
+  public boolean probed() {
+    return probed;
+  }
+
+  /**
+   * Probe a cell for a mine.
+   * <ul>
+   * <li> If the game is finished, probe behaves like look.
+   * <li> If the cell does not exist, <code>OUT_OF_BOUNDS</code>
+   * is returned.
+   * <li>If the cell is marked, <code>MARKED</code> is returned.
+   * <li>If the cell has a mine, <code>BOOM</code> is returned
+   * and the game is lost.
+   * <li>Otherwise, the number of adjacent mines is returned.
+   * </ul>
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   */
+  public int probe(int x, int y) {
+    if (x < 0 || x >= c || y < 0 || y >= r)
+      return OUT_OF_BOUNDS;
+    else
+      return probe(y * c + x);
+  }
+
+  /* Probe the cell with index i, which must exist */
+  private int probe(int i) {
+    int cell = cells[i];
+    if (finished || (cell & MARK) != 0)
+      return value(cell);
+    if (!placed) {
+      place_around(i);
+      cell = cells[i];
+    }
+    cells[i] = (byte)(cell | OPEN);
+    if ((cell & MINE) != 0) {
+      finished = true;
+      return BOOM;
+    }
+    probed = true;
+    if ((cell & OPEN) == 0 && --safe_unprobed == 0) {
+      finished = true;
+      victory = true;
+    }
+    return cell & COUNT;
+  }
+  
+  /**
+   * Look at a cell.
+   * <ul>
+   * <li> If the cell does not exist, <code>OUT_OF_BOUNDS</code>
+   * is returned.
+   * <li>If the cell is marked, <code>MARKED</code> is returned.
+   * <li>If the cell has not been probed, <code>UNPROBED</code> 
+   * is returned.
+   * <li>If the cell has a probed mine, <code>BOOM</code> is returned.
+   * <li>Otherwise, the number of adjacent mines is returned.
+   * </ul>
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   */
+  public int look(int x, int y) {
+    if (x < 0 || x >= c || y < 0 || y >= r)
+      return OUT_OF_BOUNDS;
+    else
+      return value(cells[y * c + x]);
+  }
+
+  /* What look reports for a cell in the given state */
+  private static int value(int cell) {
+    if ((cell & MARK) != 0)
+      return MARKED;
+    else if ((cell & OPEN) == 0)
+      return UNPROBED;
+    else if ((cell & MINE) != 0)
+      return BOOM;
+    else
+      return cell & COUNT;
+  }
+
+  /**
+   * Mark a cell.
+   * <ul>
+   * <li> If the game is finished, mark behaves like look.
+   * <li> If the cell does not exist, <code>OUT_OF_BOUNDS</code>
+   * is returned.
+   * <li>If the cell is marked, <code>MARKED</code> is returned.
+   * <li>If the cell has not been probed, the cell is marked
+   * and <code>MARKED</code> is returned.
+   * <li>Otherwise, the number of adjacent mines is returned.
+   * </ul>
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   */
+  public int mark(int x, int y) { 
+    if (x < 0 || x >= c || y < 0 || y >= r)
+      return OUT_OF_BOUNDS;
+    else
+      return mark(y * c + x);
+  }
+
+  /* Mark the cell with index i, which must exist */
+  private int mark(int i) {
+    int cell = cells[i];
+    if (!finished && (cell & (MARK | OPEN)) == 0) {
+      mmm--;
+      cells[i] = (byte)(cell | MARK);
+      return MARKED;
+    }
+    else
+      return value(cell);
+  }
+
+  /**
+   * Unmark a cell.
+   * <ul>
+   * <li> If the game is finished, unmark behaves like look.
+   * <li> If the cell does not exist, <code>OUT_OF_BOUNDS</code>
+   * is returned.
+   * <li>If the cell is marked, the cell is unmarked
+   * and <code>UNPROBED</code> is returned.
+   * <li>If the cell has not been probed,  
+  * <code>UNPROBED</code> is returned.
+   * <li>Otherwise, the number of adjacent mines is returned.
+   * </ul>
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   */
+  public int unmark(int x, int y) { 
+    if (finished)
+      return look(x, y);
+    else if (x < 0 || x >= c || y < 0 || y >= r)
+      return OUT_OF_BOUNDS;
+    int i = y * c + x;
+    int cell = cells[i];
+    if ((cell & MARK) != 0) {
+      mmm++;
+      cells[i] = (byte)(cell & ~MARK);
+      return UNPROBED;
+    }
+    else
+      return value(cell);
+  }
+
+  /**
+   * Open a cell, as in the classic game.
+   * @param x        x coordinate of cell
+   * @param y        y coordinate of cell
+   * @param opened   receives the indices of the probed cells
+   * @return         the number of cells probed
+   * @see map.Map#open
+   */
+  public int open(int x, int y, int opened[]) {
+    if (finished || x < 0 || x >= c || y < 0 || y >= r)
+      return 0;
+    int i = y * c + x;
+    int cell = cells[i];
+    int n = 0;
+    if ((cell & MARK) != 0)
+      return 0;
+    else if ((cell & OPEN) == 0) {
+      opened[n++] = i;
+      if (probe(i) != 0)	// A mine or a number ends the opening
+	return n;
+    }
+    else if ((cell & (MINE | COUNT)) == 0)
+      n = spread(i, opened, n);
+    /* Breadth first search, using the opened cells as the queue */
+    for (int k = 0; k < n; k++)
+      if ((cells[opened[k]] & COUNT) == 0)
+	n = spread(opened[k], opened, n);
+    return n;
+  }
+
+  /* Probe the unprobed, unmarked neighbors of cell i, which has no
+   * adjacent mines, and add them to the n cells already opened.
+   */
+  private int spread(int i, int opened[], int n) {
+    int x = i % c;
+    int y = i / c;
+    int y0 = Math.max(0, y - 1);
+    int y1 = Math.min(r, y + 2);
+    int x0 = Math.max(0, x - 1);
+    int x1 = Math.min(c, x + 2);
+    for (int yw = y0; yw < y1; yw++)
+      for (int xw = x0; xw < x1; xw++) {
+	int j = yw * c + xw;
+	if ((cells[j] & (MARK | OPEN)) == 0) {
+	  probe(j);
+	  opened[n++] = j;
+	}
+      }
+    return n;
+  }
+
+  /**
+   * Probe several cells.
+   * @param indices  indices of the cells to probe
+   * @param n        number of cells to probe
+   * @param results  receives the result of each probe
+   * @see map.Map#probe(int[], int, int[])
+   */
+  public void probe(int indices[], int n, int results[]) {
+    int size = r * c;
+    for (int k = 0; k < n; k++) {
+      int i = indices[k];
+      results[k] = i < 0 || i >= size ? OUT_OF_BOUNDS : probe(i);
+    }
+  }
+
+  /**
+   * Mark several cells.
+   * @param indices  indices of the cells to mark
+   * @param n        number of cells to mark
+   * @param results  receives the result of each mark, or null
+   * @see map.Map#mark(int[], int, int[])
+   */
+  public void mark(int indices[], int n, int results[]) {
+    int size = r * c;
+    for (int k = 0; k < n; k++) {
+      int i = indices[k];
+      int q = i < 0 || i >= size ? OUT_OF_BOUNDS : mark(i);
+      if (results != null)
+	results[k] = q;
+    }
+  }
+
+  /**
+   * Look at a rectangle of cells.
+   * @param x        x coordinate of the lower left cell
+   * @param y        y coordinate of the lower left cell
+   * @param width    number of columns in the rectangle
+   * @param height   number of rows in the rectangle
+   * @param results  receives <code>width * height</code> results
+   * @see map.Map#look(int, int, int, int, int[])
+   */
+  public void look(int x, int y, int width, int height, int results[]) {
+    int x0 = Math.max(0, x);	// The part of the rectangle on the map
+    int x1 = Math.min(c, x + width);
+    for (int j = 0; j < height; j++) {
+      int k = j * width;
+      int yj = y + j;
+      if (yj < 0 || yj >= r || x0 >= x1) {
+	Arrays.fill(results, k, k + width, OUT_OF_BOUNDS);
+	continue;
+      }
+      int row = yj * c;
+      for (int xi = x; xi < x0; xi++)
+	results[k++] = OUT_OF_BOUNDS;
+      for (int xi = x0; xi < x1; xi++)
+	results[k++] = value(cells[row + xi]);
+      for (int xi = x1; xi < x + width; xi++)
+	results[k++] = OUT_OF_BOUNDS;
+    }
+  }
+
+  /* Direct access to the state of a cell (x, y), which must exist.
+   * Used by the display, which shows what the strategy cannot see.
+   */
+
+  boolean mine(int x, int y) {
+    return (cells[y * c + x] & MINE) != 0;
+  }
+
+  boolean marked(int x, int y) {
+    return (cells[y * c + x] & MARK) != 0;
+  }
+
+  boolean unprobed(int x, int y) {
+    return (cells[y * c + x] & OPEN) == 0;
+  }
+
+  /* The number of mines adjacent to the cell */
+  int count(int x, int y) {
+    return cells[y * c + x] & COUNT;
+  }
+
+  /**
+   * Provide the number of mines minus the 
+   * number of marks in this mine map.
+   */ 
+  public int mines_minus_marks() {
+    return mmm;
+  }
+  
+  /**
+   * Provide the number of rows in this mine map.
+   */ 
+  public int rows() {
+    return r;
+  }
+  
+  /**
+   * Provide the number of columns in this mine map.
+   */ 
+  public int columns() {
+    return c;
+  }
+
+  /**
+   * Display the mine map on the standard output stream.
+   * Used only for debugging.
+   */
+  public void display() {
+    for (int y = 0; y < r; y++) {
+      int z = r - 1 - y;
+      System.out.print(z % 10 + ":");
+      for (int x = 0; x < c; x++)
+	if (marked(x, z))
+	  if (mine(x, z))
+	    System.out.print("-");
+	  else
+	    System.out.print("?");
+	else if (mine(x, z))
+	  System.out.print("X");
+	else if (unprobed(x, z))
+	  System.out.print(" ");
+	else
+	  System.out.print(count(x, z));
+      System.out.println();
+    }
+    System.out.print("  ");
+    for (int x = 0; x < c; x++)
+      System.out.print(x % 10);
+  }
+}
@@ -0,0 +1,214 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The class RecordingMap passes every operation on to another map,
+ * and records the ones that can change it in the format of a game
+ * log.  The game is kept in memory until it is written, in one piece,
+ * so games played on several threads can share a log as long as
+ * each write is done while holding a lock on the log.
+ *
+ * @see GameLog
+ */
+public class RecordingMap implements Map
+{
+    private final Map m;
+    private final int columns;
+    private final int cells;
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+    private int last;           // Cell of the previous operation
+
+    /**
+     * Create a recording map for a map that does not protect its
+     * first probe.
+     *
+     * @param m     the map played on
+     * @param mines number of mines in the map
+     * @param seed  seed the map was created with
+     */
+    public RecordingMap(Map m, int mines, long seed)
+    {
+        this(m, mines, seed, MineMap.START_ANY);
+    }
+
+    /**
+     * Create a recording map.
+     *
+     * @param m     the map played on
+     * @param mines number of mines in the map
+     * @param seed  seed the map was created with
+     * @param start how the map protects its first probe
+     * @see MineMap#start()
+     */
+    public RecordingMap(Map m, int mines, long seed, int start)
+    {
+        this.m = m;
+        columns = m.columns();
+        cells = m.rows() * columns;
+        buffer.putInt(GameLog.MAGIC);
+        buffer.put((byte) GameLog.VERSION);
+        buffer.putLong(seed);
+        varint(mines);
+        varint(m.rows());
+        varint(columns);
+        varint(start);
+    }
+
+    /**
+     * Write the game recorded so far to a log, ending it.  The map
+     * should not be played on afterwards.
+     *
+     * @param out the log
+     * @throws IOException if the log cannot be written
+     */
+    public void write(WritableByteChannel out) throws IOException
+    {
+        varint(GameLog.END);
+        buffer.flip();
+        while (buffer.hasRemaining())
+            out.write(buffer);
+    }
+
+    private void record(int code, int cell)
+    {
+        int delta = cell - last;
+        last = cell;
+        long zigzag = ((long) delta << 1) ^ (delta >> 31);
+        varint((zigzag << 3) | code);
+    }
+
+    private void record(int code, int x, int y)
+    {
+        if (x >= 0 && x < columns && y >= 0 && y * columns + x < cells)
+            record(code, y * columns + x);
+    }
+
+    private void varint(long v)
+    {
+        if (buffer.remaining() < 10)
+        {
+            ByteBuffer b = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            buffer = b.put(buffer);
+        }
+        while ((v & ~0x7fL) != 0)
+        {
+            buffer.put((byte) (v | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    public int probe(int x, int y)
+    {
+        record(GameLog.PROBE, x, y);
+        return m.probe(x, y);
+    }
+
+    public int mark(int x, int y)
+    {
+        record(GameLog.MARK, x, y);
+        return m.mark(x, y);
+    }
+
+    public int unmark(int x, int y)
+    {
+        record(GameLog.UNMARK, x, y);
+        return m.unmark(x, y);
+    }
+
+    public int open(int x, int y, int cells[])
+    {
+        record(GameLog.OPEN, x, y);
+        return m.open(x, y, cells);
+    }
+
+    public void probe(int cells[], int n, int results[])
+    {
+        for (int k = 0; k < n; k++)
+            if (cells[k] >= 0 && cells[k] < this.cells)
+                record(GameLog.PROBE, cells[k]);
+        m.probe(cells, n, results);
+    }
+
+    public void mark(int cells[], int n, int results[])
+    {
+        for (int k = 0; k < n; k++)
+            if (cells[k] >= 0 && cells[k] < this.cells)
+                record(GameLog.MARK, cells[k]);
+        m.mark(cells, n, results);
+    }
+
+    public boolean won()
+    {
+        return m.won();
+    }
+
+    public boolean done()
+    {
+        return m.done();
+    }
+
+    public boolean probed()
+    {
+        return m.probed();
+    }
+
+    public int look(int x, int y)
+    {
+        return m.look(x, y);
+    }
+
+    public void look(int x, int y, int width, int height, int results[])
+    {
+        m.look(x, y, width, height, results);
+    }
+
+    public int mines_minus_marks()
+    {
+        return m.mines_minus_marks();
+    }
+
+    public int rows()
+    {
+        return m.rows();
+    }
+
+    public int columns()
+    {
+        return columns;
+    }
+
+    public void display()
+    {
+        m.display();
+    }
+
+    public int pick(int n)
+    {
+        return m.pick(n);
+    }
+}
@@ -0,0 +1,115 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+/**
+ * The class Trace lets a strategy explain its reasoning on the
+ * standard output stream.  A message is written only when its level
+ * is enabled.  Callers test the level with <code>on</code> before
+ * building a message, so a disabled trace costs one comparison and
+ * nothing is formatted or locked. <p>
+ * The level is read from the <code>pgms.trace</code> system property,
+ * which is one of <code>off</code>, <code>info</code> or
+ * <code>debug</code>.  A single game traces at <code>info</code>, and
+ * many games played without graphics are not traced unless the
+ * property is given.
+ *
+ * @see Strategy
+ * @see PGMS
+ */
+public final class Trace
+{
+    /**
+     * Nothing is traced.
+     */
+    public static final int OFF = 0;
+
+    /**
+     * The decisions of a strategy, such as marks and guesses.
+     */
+    public static final int INFO = 1;
+
+    /**
+     * The details behind the decisions, such as probabilities.
+     */
+    public static final int DEBUG = 2;
+
+    /**
+     * System property that holds the initial level.
+     */
+    public static final String PROPERTY = "pgms.trace";
+
+    // Set before games start, which orders it before any game's reads
+    private static int level = parse(System.getProperty(PROPERTY), INFO);
+
+    private Trace()
+    {
+    }
+
+    /**
+     * Is a level enabled?
+     *
+     * @param l one of INFO or DEBUG
+     */
+    public static boolean on(int l)
+    {
+        return level >= l;
+    }
+
+    /**
+     * Set the level.  It should be set before games start.
+     *
+     * @param l one of OFF, INFO or DEBUG
+     */
+    public static void level(int l)
+    {
+        level = l;
+    }
+
+    /**
+     * Write one line of trace.  Games in other threads may trace
+     * too, so a message is written as a single line.
+     */
+    public static void println(String message)
+    {
+        System.out.println(message);
+    }
+
+    /**
+     * Parse a level name.
+     *
+     * @param name      the name, or null
+     * @param otherwise the level used when the name is not known
+     */
+    static int parse(String name, int otherwise)
+    {
+        if (name == null)
+            return otherwise;
+        else if (name.equalsIgnoreCase("off"))
+            return OFF;
+        else if (name.equalsIgnoreCase("info"))
+            return INFO;
+        else if (name.equalsIgnoreCase("debug"))
+            return DEBUG;
+        else
+            return otherwise;
+    }
+}
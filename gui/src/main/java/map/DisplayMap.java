@@ -0,0 +1,426 @@
+package map;
+
+/* Copyright (C) 1995 and 1997 John D. Ramsdell
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The class DisplayMap provides graphics for an applet which is running 
+ * a game of minesweeper. <p>
+ * The strategy plays on a thread of its own.  It hands the squares it
+ * changes to the display through a lock-free queue, and the display
+ * redraws them when it next updates.  Play is paused and resumed
+ * cooperatively: the strategy checks whether it should wait each
+ * time it changes the display, so the display thread never blocks
+ * on the strategy. <p>
+ * The map is drawn into an offscreen image one square at a time, and
+ * only the squares that changed are drawn again.  The strategy asks
+ * for a repaint of just the rectangle around the squares it changed,
+ * and the display copies that part of the image to the screen.
+ * @version February 1997
+ * @author John D. Ramsdell
+ */
+class DisplayMap extends Canvas implements Map, Runnable {
+  private Strategy s;
+  private int mines;
+  private int start;
+  private int r;
+  private int c;
+  private Label status;
+  private Label tally;
+  private volatile MineMap m;
+  private SplittableRandom seeds;	// Seeds of the maps that follow m
+  private volatile Thread t;		// Thread running the strategy
+  private final AtomicBoolean paused = new AtomicBoolean();
+
+  /* Squares changed by the strategy and not yet drawn into the
+     image.  Only the display thread draws into the image. */
+  private final ConcurrentLinkedQueue<int[]> changes
+    = new ConcurrentLinkedQueue<int[]>();
+
+  private final int unit = 20;	// Size of a unit square
+  private final int boxsize = unit - 1;	// Size of a painted square
+  private final int neighbors = 8;	// Max number of neighbors of a square
+  private final int left = 7;		// Center text by moving left
+  private final int up = -5;		// Center text by moving up
+  private volatile long delay = 200;	// Milliseconds to wait after a change
+  private String digit[];		// Translates numbers to strings
+  private volatile boolean map_needs_update; // Does entire map need drawing?
+  private BufferedImage image;		// The map as last drawn
+  private int width;
+  private int height;
+  
+  /**
+   * Create a displayable mine map.
+   * @param s           strategy
+   * @param parent	applet running the game
+   * @param mines	number of mines in mine map
+   * @param rows        rows in map
+   * @param columns     columns in map
+   * @param seed        seed of the first mine map
+   * @param start       how each mine map protects its first probe
+   * @param status      label for status reports
+   * @param tally       label for tally of mines minus marks
+   * @return 		a displayable mine map
+   */
+  public DisplayMap(Strategy s, int mines, int rows, int columns,
+		    long seed, int start, Label status, Label tally) {
+    this.s = s;
+    this.mines = mines;
+    this.start = start;
+    r = rows;
+    c = columns;
+    this.status = status;
+    this.tally = tally;
+    m = new MineMap(mines, rows, columns, seed, start);
+    seeds = new SplittableRandom(seed);
+    width = unit*c + 1;
+    height =  unit*r + 1;
+    digit = new String[neighbors + 1];
+    for (int d = 0; d <= neighbors; d++)
+      digit[d] = Integer.toString(d);
+  }
+
+  void init() {
+    show_tally();
+    map_needs_update = true;
+    repaint();
+  }    
+
+  public Dimension getMinimumSize() {
+    return new Dimension(width, height);
+  }
+
+  public Dimension getPreferredSize() {
+    return getMinimumSize();
+  }
+  
+  public void paint(Graphics g) {
+    update(g);
+  }
+  
+  /* Draw the changed squares into the image, and copy the part of
+     the image inside the clip to the screen. */
+  public void update(Graphics g) {
+    MineMap m = this.m;
+    if (image == null) {
+      image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      map_needs_update = true;
+    }
+    Graphics ig = image.getGraphics();
+    Font font = getFont();
+    if (font != null)
+      ig.setFont(font);
+    if (map_needs_update) {
+      map_needs_update = false;
+      changes.clear();		// Every square is drawn anyway
+      ig.setColor(getBackground());
+      ig.fillRect(0, 0, width, height);
+      ig.setColor(Color.black);	// Draw border
+      ig.drawRect(0, 0, unit*c, unit*r);
+      for (int y = 0; y < r; y++)
+	for (int x = 0; x < c; x++)
+	  draw_square(ig, m, x, y);
+    }
+    int changed[];
+    while ((changed = changes.poll()) != null)
+      for (int k = 0; k < changed.length; k++)
+	draw_square(ig, m, changed[k] % c, changed[k] / c);
+    ig.dispose();
+    g.drawImage(image, 0, 0, this);
+  }
+
+  /* Draw one square in the color of its state, or its digit if it
+     has been probed safely. */
+  private void draw_square(Graphics g, MineMap m, int x, int y) {
+    int z = unit * (r - 1 - y) + 1; // Use right handed coodinates
+    g.setColor(getBackground());
+    g.fillRect(unit*x + 1, z, boxsize, boxsize);
+    boolean mine = m.mine(x, y);
+    if (m.marked(x, y))
+      g.setColor(mine ? Color.blue : Color.black); // Correct or wrong mark
+    else if (!mine) {
+      if (!m.unprobed(x, y)) {	// Draw digit for probed square
+	g.setColor(Color.black);
+	g.drawString(digit[m.count(x, y)], unit*x + 1 + left, z + unit + up);
+      }
+      return;
+    }
+    else if (m.unprobed(x, y))
+      g.setColor(Color.yellow);	// Unmarked square that contains a mine
+    else
+      g.setColor(Color.red);	// Probed square that contains a mine
+    g.fillRect(unit*x + 1, z, boxsize, boxsize);
+  }
+
+  /* Hand the display squares changed by the strategy, and ask for a
+     repaint of the rectangle around them. */
+  private void show(int cells[]) {
+    int x0 = c, x1 = -1, y0 = r, y1 = -1;
+    for (int k = 0; k < cells.length; k++) {
+      int x = cells[k] % c;
+      int y = cells[k] / c;
+      x0 = Math.min(x0, x);
+      x1 = Math.max(x1, x);
+      y0 = Math.min(y0, y);
+      y1 = Math.max(y1, y);
+    }
+    changes.offer(cells);
+    repaint(unit*x0, unit*(r - 1 - y1), unit*(x1 - x0 + 1) + 1,
+	    unit*(y1 - y0 + 1) + 1);
+  }
+
+  public int probe(int x, int y) {
+    int q0 = m.look(x, y);
+    int q1 = m.probe(x, y);
+    if (q0 != q1) {		
+      show(new int[] { y * c + x });	// When a change to the display is made
+      pause();				// pause so it can be seen
+    }
+    return q1;
+  }
+  
+  public int mark(int x, int y) {
+    int q0 = m.look(x, y);
+    int q1 = m.mark(x, y);
+    if (q0 != q1) {		
+      show(new int[] { y * c + x });	// When a change to the display is made
+      pause();			        // pause so it can be seen
+    }
+    show_tally();
+    return q1;
+  }
+  
+  public int unmark(int x, int y) {
+    int q0 = m.look(x, y);
+    int q1 = m.unmark(x, y);
+    if (q0 != q1) {		
+      show(new int[] { y * c + x });	// When a change to the display is made
+      pause();			        // pause so it can be seen
+    }
+    show_tally();
+    return q1;
+  }
+
+  public int open(int x, int y, int cells[]) {
+    int n = m.open(x, y, cells);
+    if (n > 0) {
+      int opened[] = new int[n];
+      System.arraycopy(cells, 0, opened, 0, n);
+      show(opened);			// One display change for the opening
+      pause();
+    }
+    return n;
+  }
+
+  public void probe(int cells[], int n, int results[]) {
+    int changed[] = flag(cells, n);
+    m.probe(cells, n, results);
+    if (changed != null) {
+      show(changed);			// One display change for the batch
+      pause();
+    }
+  }
+
+  public void mark(int cells[], int n, int results[]) {
+    int changed[] = flag(cells, n);
+    m.mark(cells, n, results);
+    if (changed != null) {
+      show(changed);			// One display change for the batch
+      pause();
+    }
+    show_tally();
+  }
+
+  /* Find the squares of a batch that a probe or mark may change,
+     or null if there are none. */
+  private int[] flag(int cells[], int n) {
+    if (m.done())
+      return null;
+    int changed[] = new int[n];
+    int count = 0;
+    for (int k = 0; k < n; k++) {
+      int i = cells[k];
+      if (i >= 0 && i < r * c) {
+	int x = i % c;
+	int y = i / c;
+	if (m.unprobed(x, y) && !m.marked(x, y))
+	  changed[count++] = i;
+      }
+    }
+    if (count == 0)
+      return null;
+    if (count < n) {
+      int trimmed[] = new int[count];
+      System.arraycopy(changed, 0, trimmed, 0, count);
+      changed = trimmed;
+    }
+    return changed;
+  }
+
+  /* Called by the strategy after each display change.  Wait so the
+     change can be seen, then wait for as long as play is paused. */
+  private void pause() {
+    long deadline = System.nanoTime() + delay * 1000000L;
+    long left;
+    while ((left = deadline - System.nanoTime()) > 0)
+      LockSupport.parkNanos(this, left);
+    while (paused.get())
+      LockSupport.park(this);
+  }
+
+  /**
+   * Set the time to wait after each change to the display.
+   * @param delay       milliseconds, or zero to play at full speed
+   */
+  void set_delay(long delay) {
+    this.delay = Math.max(0, delay);
+  }
+
+  private int tally_state = -1;
+
+  private void show_tally() {
+    int current_tally = mines_minus_marks();
+    if (current_tally != tally_state) {
+      tally_state = current_tally;
+      tally.setText(Integer.toString(current_tally));
+    }
+  }
+
+  /* proxy routines so that DisplayMap implements a Map */
+
+  public int mines_minus_marks() {
+    return m.mines_minus_marks();
+  }
+
+  public int look(int x, int y) {
+    return m.look(x, y);
+  }
+
+  public void look(int x, int y, int width, int height, int results[]) {
+    m.look(x, y, width, height, results);
+  }
+
+  public boolean won() {
+    return m.won();
+  }
+
+  public boolean done() {
+    return m.done();
+  }
+
+  public boolean probed() {
+    return m.probed();
+  }
+
+  public int rows() {
+    return m.rows();
+  }
+
+  public int columns() {
+    return m.columns();
+  }
+
+  public int pick(int n) {
+    return m.pick(n);
+  }
+  
+  public void display() {
+    m.display();
+  }
+  
+  /**
+   * Runs a strategy.
+   * @see map.Strategy#play
+   */
+  public void run() {
+    s.play(this);
+    show_result();
+  }
+
+  private void show_result() {
+    if (m.done())
+      if (m.won())
+	show_status("PGMS: play ended--game won");
+      else
+	show_status("PGMS: play ended--game lost");
+    else
+      show_status("PGMS: play ended");
+  }
+
+  private void show_status(String message) {
+    status.setText(message);
+  }
+
+  /* The display calls start, stop and resume, and none of them
+     waits for the strategy. */
+
+  void start() {
+    Thread t = this.t;
+    if (m.done() && (t == null || !t.isAlive())) { // Game done, make another
+      m = new MineMap(mines, r, c, seeds.nextLong(), start);
+      changes.clear();
+      show_tally();
+      map_needs_update = true;
+      repaint();
+    }
+    paused.set(false);
+    if (t == null || !t.isAlive()) {
+      t = new Thread(this, "PGMS strategy");
+      t.setDaemon(true);
+      this.t = t;
+      t.start();
+    }
+    else
+      LockSupport.unpark(t);
+    show_status("PGMS: playing...");
+  }
+
+  void stop() {
+    Thread t = this.t;
+    if (t == null)
+      return;
+    if (t.isAlive()) {
+      paused.set(true);		// The strategy waits at its next change
+      show_status("PGMS: play suspended");
+    }
+    else
+      this.t = null;
+  }
+
+  void resume() {
+    Thread t = this.t;
+    if (m.done())		// Game done, show result
+      show_result();
+    else if (t != null && t.isAlive()) {
+      paused.set(false);
+      LockSupport.unpark(t);
+      show_status("PGMS: playing...");
+    }
+  }
+
+}
+
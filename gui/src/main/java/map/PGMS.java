@@ -0,0 +1,600 @@
+package map;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.applet.Applet;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/* Copyright (C) 1995 and 1997 John D. Ramsdell
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+/**
+ * The class PGMS creates and displays minesweeper games played by
+ * Java programs.  A user contributes a Java class that conforms to
+ * the interface called Strategy.  The strategy plays a game of
+ * minesweeper using the methods provided by the Map class. <p>
+ * This class provides both an applet for graphical presentations
+ * using browsers, and a main routine for applications.
+ *
+ * @author John D. Ramsdell
+ * @version February 1997
+ * @see Strategy
+ * @see Map
+ */
+@SuppressWarnings("removal")    // The applet is kept for browsers that still run one
+public class PGMS extends Applet
+{
+    // The default strategy
+    private static String default_strategy_name = "sweeper.SweeperAlgo";
+    // Bytes of state a strategy keeps per cell; SweeperAlgo keeps about 92
+    private static final long STRATEGY_BYTES_PER_CELL = 100;
+    // Mines per cell of an expert game, used for boards of any other size
+    private static final double EXPERT_DENSITY = 99.0 / 480;
+    Strategy s;            // The selected strategy
+    int mines;
+    int rows;
+    int columns;
+    long seed = new SplittableRandom().nextLong();
+    int start = MineMap.START_ANY;  // How the first probe is protected
+    long delay = 200;      // Milliseconds shown after each move
+    DisplayMap m;          // Panel for map display
+
+    /**
+     * Application entry point.
+     *
+     * @param args program arguments
+     *             <dl>
+     *             <dt> <code>-b</code>
+     *             <dd> play a beginner game
+     *             <dt> <code>-i</code>
+     *             <dd> play an intermediate game
+     *             <dt> <code>-e</code>
+     *             <dd> play an expert game
+     *             <dt> <code>-c</code> <var>rows</var> <var>columns</var>
+     *             <dd> play on a chunked map, at the mine density of
+     *             an expert game, without graphics.  The map keeps only
+     *             the chunks in play, but a strategy that keeps state
+     *             for every cell, as SweeperAlgo does, still needs
+     *             memory for the whole board, so boards it cannot
+     *             allocate are refused
+     *             <dt> <code>-m</code> <var>file</var> <var>rows</var>
+     *             <var>columns</var>
+     *             <dd> play one game, without graphics, on a new mapped
+     *             map kept in the file, at the mine density of an
+     *             expert game.  The map is limited only by the disk,
+     *             but boards the strategy cannot allocate are refused,
+     *             as with <code>-c</code>
+     *             <dt> <code>-o</code> <var>file</var>
+     *             <dd> open a mapped map again, report its game, and
+     *             play on if it is not finished
+     *             <dt> <code>-s</code> <var>strategy class name</var>
+     *             <dd> play with given strategy
+     *             <dt> <code>-n</code> <var>number of games</var>
+     *             <dd> play multiple games - graphics will be disabled
+     *             with more than one game
+     *             <dt> <code>-t</code> <var>number of threads</var>
+     *             <dd> number of worker threads used to play multiple
+     *             games, by default one per available processor
+     *             <dt> <code>-r</code> <var>seed</var>
+     *             <dd> seed of the mine map, or with more than one game,
+     *             the seed from which the seed of every game is derived
+     *             <dt> <code>-f</code> <var>safe</var> or <var>open</var>
+     *             <dd> place the mines on the first probe, keeping them
+     *             off the probed cell, or off it and its neighbors
+     *             <dt> <code>-d</code> <var>milliseconds</var>
+     *             <dd> time to show each move of a displayed game,
+     *             200 by default, 0 to play at full speed
+     *             <dt> <code>-l</code> <var>file</var>
+     *             <dd> with more than one game, write the lost games to
+     *             a game log, which <code>map.Replay</code> plays again
+     *             </dl>
+     */
+    public static void main(String args[])
+    {
+        /*
+        Beginner        9*9     10 Bombs
+        Intermediate    16*16   40 Bombs
+        Expert          16*30   99 Bombs
+         */
+
+        String strategy_name = default_strategy_name;
+        int mines = 10;        // Beginner game
+        int rows = 9;
+        int columns = 9;
+        int tries = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = new SplittableRandom().nextLong();
+        int start = MineMap.START_ANY;
+        long delay = 200;
+        String log = null;
+        boolean chunked = false;
+        String mapped = null;   // File of a mapped map
+        boolean create = false; // Make the mapped map, or open it
+
+        for (int i = 0; i < args.length; i++)
+        {
+            String arg = args[i];
+            if (arg.equals("-b"))
+            {
+                mines = 10;
+                rows = 9;
+                columns = 9;
+            }
+            else if (arg.equals("-i"))
+            {
+                mines = 40;
+                rows = 16;
+                columns = 16;
+            }
+            else if (arg.equals("-e"))
+            {
+                mines = 99;
+                rows = 16;
+                columns = 30;
+            }
+            else if (arg.equals("-c") && i + 2 < args.length)
+            {
+                rows = parse(args[++i]);
+                columns = parse(args[++i]);
+                chunked = true;
+                if (rows <= 0 || columns <= 0)
+                    tries = 0;
+            }
+            else if (arg.equals("-m") && i + 3 < args.length)
+            {
+                mapped = args[++i];
+                rows = parse(args[++i]);
+                columns = parse(args[++i]);
+                create = true;
+                if (rows <= 0 || columns <= 0)
+                    tries = 0;
+            }
+            else if (arg.equals("-o") && i + 1 < args.length)
+            {
+                mapped = args[++i];
+                create = false;
+            }
+            else if (arg.equals("-s") && i + 1 < args.length)
+                strategy_name = args[++i];
+            else if (arg.equals("-n") && i + 1 < args.length)
+                tries = parse(args[++i]);
+            else if (arg.equals("-t") && i + 1 < args.length)
+                threads = parse(args[++i]);
+            else if (arg.equals("-r") && i + 1 < args.length)
+            {
+                try
+                {
+                    seed = Long.parseLong(args[++i]);
+                }
+                catch (NumberFormatException e)
+                {
+                    tries = 0;
+                }
+            }
+            else if (arg.equals("-f") && i + 1 < args.length)
+            {
+                String first = args[++i];
+                if (first.equals("safe"))
+                    start = MineMap.START_SAFE;
+                else if (first.equals("open"))
+                    start = MineMap.START_OPEN;
+                else
+                    tries = 0;
+            }
+            else if (arg.equals("-d") && i + 1 < args.length)
+            {
+                try
+                {
+                    delay = Long.parseLong(args[++i]);
+                }
+                catch (NumberFormatException e)
+                {
+                    delay = -1;
+                }
+            }
+            else if (arg.equals("-l") && i + 1 < args.length)
+                log = args[++i];
+            else
+                tries = 0;      // Force a usage message
+        }
+
+        if (tries <= 0 || threads <= 0 || delay < 0
+                || chunked && (start != MineMap.START_ANY || log != null)
+                || mapped != null && (chunked || tries > 1
+                        || start != MineMap.START_ANY || log != null))
+        {
+            usage();
+            return;
+        }
+
+        if (mapped != null)
+        {
+            playMapped(strategy_name, mapped, create, rows, columns, seed);
+            return;
+        }
+
+        if (chunked && !fits(rows, columns, Math.min(threads, tries)))
+            return;
+
+        if (tries > 1 || chunked)
+        {
+            if (System.getProperty(Trace.PROPERTY) == null)
+                Trace.level(Trace.OFF);
+
+            Tournament t;
+            if (chunked)
+                t = new Tournament(strategy_name, rows, columns, EXPERT_DENSITY,
+                        tries, Math.min(threads, tries), seed);
+            else
+                t = new Tournament(strategy_name, mines, rows, columns,
+                        tries, Math.min(threads, tries), seed, start, log);
+            try
+            {
+                t.run();
+            }
+            catch (Exception e)
+            {
+                System.out.println("Cannot run games with strategy "
+                        + strategy_name + ": " + e);
+                usage();
+            }
+            return;
+        }
+
+        Strategy s;
+        try
+        {
+            s = (Strategy) Class.forName(strategy_name)
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (Exception e)
+        {
+            System.out.println("Cannot create strategy " + strategy_name);
+            usage();
+            return;
+        }
+
+        Frame f = new Frame("PGMS");
+        f.addWindowListener(new WindowAdapter()
+        {
+            public void windowClosing(WindowEvent e)
+            {
+                System.exit(0);
+            }
+        });
+
+        PGMS p = new PGMS(s, mines, rows, columns);
+        p.seed = seed;
+        p.start = start;
+        p.delay = delay;
+
+        MenuBar mb = new MenuBar();
+        f.setMenuBar(mb);
+        Menu m = new Menu("File");
+        mb.add(m);
+        MenuItem mi = new MenuItem("Exit", new MenuShortcut(KeyEvent.VK_X));
+        mi.addActionListener(new ActionListener()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                System.exit(0);
+            }
+        });
+        m.add(mi);
+
+        p.init_display(strategy_name);
+
+        f.add(p);
+        f.pack();
+        f.setVisible(true);
+
+        p.start();
+
+    }
+
+    /**
+     * Create a PGMS instance for an application
+     */
+    PGMS(Strategy s, int mines, int rows, int columns)
+    {
+        this.s = s;
+        this.mines = mines;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /* Play one game without graphics on a map kept in a file, which is
+     * either created or opened as it was left.
+     */
+    private static void playMapped(String strategy_name, String file,
+                                   boolean create, int rows, int columns,
+                                   long seed)
+    {
+        if (create && !fits(rows, columns, 1))
+            return;
+
+        MappedMap m;
+        try
+        {
+            if (create)
+                m = MappedMap.create(Paths.get(file),
+                        Math.round(EXPERT_DENSITY * rows * columns),
+                        rows, columns, seed);
+            else
+                m = MappedMap.open(Paths.get(file));
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            System.out.println("Cannot use mapped map " + file + ": " + e);
+            return;
+        }
+
+        if (!create)
+        {
+            report(file, m);
+            if (m.done() || !fits(m.rows(), m.columns(), 1))
+                return;
+        }
+
+        Strategy s;
+        try
+        {
+            s = (Strategy) Class.forName(strategy_name)
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (Exception e)
+        {
+            System.out.println("Cannot create strategy " + strategy_name);
+            usage();
+            return;
+        }
+
+        if (System.getProperty(Trace.PROPERTY) == null)
+            Trace.level(Trace.OFF);
+        try
+        {
+            s.play(m);
+        }
+        finally
+        {
+            m.force();
+        }
+        report(file, m);
+    }
+
+    private static void report(String file, MappedMap m)
+    {
+        String game = m.done() ? (m.won() ? "won" : "lost")
+                : m.probed() ? "not finished" : "not started";
+        System.out.println("Map: " + file + " (" + m.columns() + "x"
+                + m.rows() + ", seed " + m.seed() + ")");
+        System.out.println("Game: " + game + ", " + m.mines_minus_marks()
+                + " mines not marked");
+    }
+
+    static int percent(int n, int d)
+    {
+        return (200 * n + d) / (2 * d);
+    }
+
+    /* Can the strategies of the worker threads keep state for every cell
+     * of a board this large?  If not, say why.
+     */
+    private static boolean fits(int rows, int columns, int threads)
+    {
+        long cells = (long) rows * columns;
+        long need = cells * STRATEGY_BYTES_PER_CELL * threads;
+        long have = Runtime.getRuntime().maxMemory();
+        if (cells > Integer.MAX_VALUE)
+        {
+            System.out.println("A " + columns + "x" + rows + " board has more"
+                    + " cells than a strategy can index with an int.");
+            return false;
+        }
+        if (need > have)
+        {
+            System.out.println("A " + columns + "x" + rows + " board needs"
+                    + " about " + (need >> 20) + " MB for the per-cell state of "
+                    + threads + " strategies, at " + STRATEGY_BYTES_PER_CELL
+                    + " bytes a cell, but java may use only " + (have >> 20)
+                    + " MB.  Give java a larger -Xmx, or play a smaller board.");
+            return false;
+        }
+        return true;
+    }
+
+    private static int parse(String n)
+    {
+        try
+        {
+            return Integer.parseInt(n);
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+
+    private static void usage()
+    {
+        System.out.println("Usage: java PGMS [-b] [-i] [-e]"
+                + " [-c rows columns] [-m file rows columns] [-o file]"
+                + " [-s strategy_name] [-n number_of_games]"
+                + " [-t number_of_threads] [-r seed] [-f safe|open]"
+                + " [-d milliseconds] [-l log_file]");
+        System.out.println("Beginner:     -b");
+        System.out.println("Intermediate: -i");
+        System.out.println("Expert:       -e");
+        System.out.println("A large board, at expert density, on a chunked map"
+                + " and without graphics: -c rows columns");
+        System.out.println("A game on a map kept in a file, created with"
+                + " -m file rows columns and opened again with -o file.");
+        System.out.println("Boards a strategy cannot keep its per-cell state"
+                + " for are refused.");
+        System.out.println("More than one game is played without graphics,"
+                + " using all processors unless -t is given.");
+        System.out.println("A lost game is replayed by giving its seed to -r.");
+        System.out.println("The first probe finds no mine with -f safe, and"
+                + " no mine next to it either with -f open.");
+        System.out.println("Lost games are logged to the -l file, and played"
+                + " again with java -cp pgms.jar map.Replay log_file.");
+        System.out.println("A displayed game shows each move for -d milliseconds.");
+        System.out.println("Strategies explain their moves when run with"
+                + " -D" + Trace.PROPERTY + "=off|info|debug.");
+    }
+
+    /**
+     * Create applet PGMS
+     */
+    public PGMS()
+    {
+    }
+
+    /**
+     * Initialize applet by processing the attributes.
+     * <dl>
+     * <dt> <code>strategy</code>
+     * <dd> class name of user supplied strategy
+     * <dt> <code>game</code>
+     * <dd> level of game, one of
+     * <ul>
+     * <li> <code>beginner</code>
+     * <li> <code>intemediate</code>
+     * <li> <code>expert</code>
+     * </ul>
+     * </dl>
+     * <p/>
+     * Sample:
+     * <pre>
+     * &lt;applet codebase="classes" code="map/PGMS.class"
+     *       width=302 height=262&gt;
+     * &lt;param name="strategy" value="eqn.EqnStrategy"&gt;
+     * &lt;param name="game" value="intermediate"&gt;
+     * &lt;/applet&gt;
+     * </pre>
+     */
+    public void init()
+    {
+        String strategy_name = getParameter("strategy");
+        String game = getParameter("game");
+
+        if (strategy_name == null)
+            strategy_name = default_strategy_name;
+
+        // Create strategy
+        try
+        {
+            s = (Strategy) Class.forName(strategy_name)
+                    .getDeclaredConstructor().newInstance();
+        } catch (Exception e)
+        {
+            return;
+        }
+
+        if (game != null)
+        {        // Set game level
+            if (game.equals("intermediate"))
+            {
+                mines = 40;            // Intermediate game
+                rows = 13;
+                columns = 15;
+            } else if (game.equals("expert"))
+            {
+                mines = 99;            // Expert game
+                rows = 16;
+                columns = 30;
+            }
+        }
+        init_display(strategy_name);
+    }
+
+    /**
+     * This routine creates the panels that make up the display.
+     */
+    private void init_display(String strategy_name)
+    {
+        final int gap = 5;
+        setLayout(new BorderLayout());
+        setBackground(Color.lightGray);
+    
+    /* The status panel displays status information  */
+        final Label status = new Label("Strategy: " + strategy_name,
+                Label.CENTER);
+        add(status, "South");
+
+    /* The tally panel displays the number of
+       mines minus the number of marks. */
+        Label tally = new Label("999", Label.CENTER);
+        tally.setBackground(Color.white);
+
+    /* This panel displays the map. */
+        Panel map_panel = new Panel(new FlowLayout(FlowLayout.CENTER, gap, 0));
+        final DisplayMap display = new DisplayMap(s, mines, rows, columns,
+                seed, start, status, tally);
+        display.setBackground(Color.white);
+        display.set_delay(delay);
+        display.init();
+        m = display;        // Save DisplayMap for the start and stop method
+        map_panel.add(display);
+
+    /* This panel contains the tally and the control buttons. */
+        Panel button_panel = new Panel(new FlowLayout(FlowLayout.LEFT, gap, 0));
+
+        button_panel.add(tally);
+
+        Button b = new Button("Start");
+        b.addActionListener(new ActionListener()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                display.start();
+            }
+        });
+        button_panel.add(b);
+
+        b = new Button("Stop");
+        b.addActionListener(new ActionListener()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                display.stop();
+            }
+        });
+        button_panel.add(b);
+
+        Panel p = new Panel(new ColumnLayout(0, gap));
+        p.add(button_panel);
+        p.add(map_panel);
+        add(p, "Center");
+    }
+
+    public void start()
+    {
+        m.resume();
+    }
+
+    public void stop()
+    {
+        m.stop();
+    }
+
+}
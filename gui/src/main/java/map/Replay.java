@@ -0,0 +1,132 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+
+/**
+ * The class Replay plays the games of a game log again at full
+ * speed, without the strategy that played them.  For each game it
+ * can report the seed, the size of the map and whether the game was
+ * won, and show the map as the game left it.
+ *
+ * @see GameLog
+ * @see Tournament
+ */
+public class Replay
+{
+    /**
+     * Entry point for the replayer.
+     *
+     * @param args program arguments
+     *             <dl>
+     *             <dt> <code>-v</code>
+     *             <dd> show the map at the end of each game
+     *             <dt> <code>-r</code> <var>seed</var>
+     *             <dd> play only the games with this seed
+     *             </dl>
+     *             followed by the names of the logs
+     */
+    public static void main(String args[])
+    {
+        boolean show = false;
+        boolean select = false;
+        long seed = 0;
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("-"); i++)
+        {
+            if (args[i].equals("-v"))
+                show = true;
+            else if (args[i].equals("-r") && i + 1 < args.length)
+            {
+                try
+                {
+                    seed = Long.parseLong(args[++i]);
+                    select = true;
+                }
+                catch (NumberFormatException e)
+                {
+                    usage();
+                    return;
+                }
+            }
+            else
+            {
+                usage();
+                return;
+            }
+        }
+        if (i == args.length)
+        {
+            usage();
+            return;
+        }
+
+        int games = 0;
+        int wins = 0;
+        long start = System.nanoTime();
+        for (; i < args.length; i++)
+        {
+            try (FileChannel in = FileChannel.open(Paths.get(args[i])))
+            {
+                GameLog.Reader r = new GameLog.Reader(in);
+                while (r.next())
+                {
+                    if (select && r.seed() != seed)
+                        continue;
+                    MineMap m = r.replay();
+                    games++;
+                    if (m.won())
+                        wins++;
+                    if (select || show)
+                        System.out.println("Seed " + r.seed() + " ("
+                                + r.columns() + "x" + r.rows() + ", "
+                                + r.mines() + " mines): "
+                                + (m.won() ? "won" : m.done() ? "lost"
+                                   : "unfinished"));
+                    if (show)
+                    {
+                        m.display();
+                        System.out.println();
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                System.out.println("Cannot replay " + args[i] + ": " + e);
+                return;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Replayed: " + games + " games, " + wins
+                + " won, in " + String.format("%.3f", seconds) + " s");
+    }
+
+    private static void usage()
+    {
+        System.out.println("Usage: java -cp pgms.jar map.Replay [-v]"
+                + " [-r seed] log_file...");
+        System.out.println("Show the map at the end of each game: -v");
+        System.out.println("Replay only the games of one seed:    -r");
+    }
+}
@@ -0,0 +1,335 @@
+package map;
+
+/* Copyright (C) 2026 The PGMS contributors
+
+This file is part of Programmer's Minesweeper (PGMS).
+
+PGMS is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; either version 2, or (at your option)
+any later version.
+
+PGMS is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with PGMS; see the file COPYING.  If not, write to
+the Free Software Foundation, 59 Temple Place - Suite 330,
+Boston, MA 02111-1307, USA.
+*/
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class Tournament plays many games of minesweeper without a
+ * display.  Games are played directly against a MineMap by a fixed
+ * pool of worker threads, each of which owns its own strategy
+ * instance.  When all games are finished, the win rate, the number
+ * of games played per second and the per-game latency percentiles
+ * are reported on the standard output stream.  The board of every
+ * game is derived from a single seed and the game's number, so a
+ * run, or any one of its games, can be played again.  The moves of
+ * the lost games can also be written to a game log, so they can be
+ * studied without playing the whole run again. <p>
+ * Boards too large for a MineMap are played on a ChunkedMap, which
+ * is given a density of mines instead of a number.
+ *
+ * @see PGMS
+ * @see MineMap
+ * @see ChunkedMap
+ * @see GameLog
+ */
+class Tournament
+{
+    private final String strategy_name;
+    private final int mines;
+    private final double density;   // Of a chunked map, or 0
+    private final int rows;
+    private final int columns;
+    private final int games;
+    private final int threads;
+    private final long seed;
+    private final int start;
+    private final String log_name;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final long latency[];   // Nanoseconds taken by each game
+    private final long lost[];      // Seeds of some of the lost games
+    private int lost_count;
+    private RuntimeException failure;  // Of the first game that failed
+    private int failed_game;
+    private FileChannel log;        // Log of lost games, or null
+    private int logged;
+
+    /**
+     * Create a tournament.
+     *
+     * @param strategy_name class name of the strategy
+     * @param mines         number of mines in each mine map
+     * @param rows          rows in each map
+     * @param columns       columns in each map
+     * @param games         number of games to play
+     * @param threads       number of worker threads
+     * @param seed          seed from which the seed of each game is derived
+     * @param start         how each map protects its first probe
+     * @param log_name      file to which lost games are logged, or null
+     */
+    Tournament(String strategy_name, int mines, int rows, int columns,
+               int games, int threads, long seed, int start,
+               String log_name)
+    {
+        this.strategy_name = strategy_name;
+        this.mines = mines;
+        this.density = 0;
+        this.rows = rows;
+        this.columns = columns;
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+        this.start = start;
+        this.log_name = log_name;
+        latency = new long[games];
+        lost = new long[10];
+    }
+
+    /**
+     * Create a tournament played on chunked maps, for boards too large
+     * for a MineMap.  A chunked map places its mines as it is played,
+     * so its first probe is not protected and its games are not
+     * logged.
+     *
+     * @param strategy_name class name of the strategy
+     * @param rows          rows in each map
+     * @param columns       columns in each map
+     * @param density       fraction of the cells that contain a mine
+     * @param games         number of games to play
+     * @param threads       number of worker threads
+     * @param seed          seed from which the seed of each game is derived
+     */
+    Tournament(String strategy_name, int rows, int columns, double density,
+               int games, int threads, long seed)
+    {
+        this.strategy_name = strategy_name;
+        this.mines = 0;
+        this.density = density;
+        this.rows = rows;
+        this.columns = columns;
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+        this.start = MineMap.START_ANY;
+        this.log_name = null;
+        latency = new long[games];
+        lost = new long[10];
+    }
+
+    /**
+     * Play all games and report the results.
+     *
+     * @throws Exception if a strategy cannot be created, the log
+     *                   cannot be written or a worker fails
+     */
+    void run() throws Exception
+    {
+        List<Worker> workers = new ArrayList<Worker>(threads);
+        for (int i = 0; i < threads; i++)    // Fail early on a bad name
+            workers.add(new Worker(
+                    (Strategy) Class.forName(strategy_name)
+                            .getDeclaredConstructor().newInstance()));
+
+        if (log_name != null)
+            log = FileChannel.open(Paths.get(log_name),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try
+        {
+            List<Future<Worker>> results = pool.invokeAll(workers);
+            for (Future<Worker> f : results)
+                f.get();
+        }
+        finally
+        {
+            pool.shutdown();
+            if (log != null)
+                log.close();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int wins = 0;
+        int probed = 0;
+        int failures = 0;
+        for (Worker w : workers)
+        {
+            wins += w.wins;
+            probed += w.probed;
+            failures += w.failures;
+        }
+        report(wins, probed, failures, elapsed);
+    }
+
+    private void report(int wins, int probed, int failures, long elapsed)
+    {
+        System.out.println("Strategy: " + strategy_name);
+        System.out.println("Games: " + games + " (" + columns + "x" + rows
+                + ", " + (density > 0 ? "mine density " + density
+                        : mines + " mines") + ") on " + threads + " threads");
+        System.out.println("Seed: " + seed);
+        System.out.println("Won: " + wins + " (" + PGMS.percent(wins, games)
+                + "% of all games, "
+                + (probed > 0 ? PGMS.percent(wins, probed) : 0)
+                + "% of probed games)");
+        if (failures > 0)
+        {
+            System.out.println("Failed: " + failures
+                    + " (strategy threw an exception)");
+            System.out.println("First failure, game " + failed_game
+                    + ", seed " + seed(failed_game) + ":");
+            failure.printStackTrace(System.out);
+        }
+        if (lost_count > 0)
+        {
+            StringBuilder b = new StringBuilder("Seeds of lost games:");
+            for (int i = 0; i < lost_count; i++)
+                b.append(' ').append(lost[i]);
+            System.out.println(b);
+        }
+        if (log != null)
+            System.out.println("Logged: " + logged + " lost games to "
+                    + log_name);
+        double seconds = elapsed / 1e9;
+        System.out.println("Time: " + format(seconds) + " s, "
+                + format(games / seconds) + " games/sec");
+
+        Arrays.sort(latency);
+        System.out.println("Latency (us): p50 " + micros(percentile(50))
+                + ", p90 " + micros(percentile(90))
+                + ", p99 " + micros(percentile(99))
+                + ", max " + micros(latency[games - 1]));
+    }
+
+    /* Nearest rank percentile of the sorted latencies */
+    private long percentile(int p)
+    {
+        int rank = (int) Math.ceil(p / 100.0 * games);
+        return latency[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Provide the seed of a game.
+     *
+     * @param game the number of the game
+     * @return     the seed of the game's mine map
+     */
+    long seed(int game)
+    {
+        return new SplittableRandom(seed + game * 0x9e3779b97f4a7c15L)
+                .nextLong();
+    }
+
+    private synchronized void lose(long game_seed)
+    {
+        if (lost_count < lost.length)
+            lost[lost_count++] = game_seed;
+    }
+
+    /* Keep the exception of the first game that failed. */
+    private synchronized void fail(int game, RuntimeException e)
+    {
+        if (failure == null || game < failed_game)
+        {
+            failure = e;
+            failed_game = game;
+        }
+    }
+
+    /* Append a lost game to the log in one piece. */
+    private void log(RecordingMap r) throws IOException
+    {
+        synchronized (log)
+        {
+            r.write(log);
+            logged++;
+        }
+    }
+
+    private static String micros(long nanos)
+    {
+        return format(nanos / 1e3);
+    }
+
+    private static String format(double d)
+    {
+        return String.format("%.1f", d);
+    }
+
+    /* A worker claims games until none are left. */
+    private class Worker implements Callable<Worker>
+    {
+        private final Strategy s;
+        int wins;
+        int probed;
+        int failures;
+
+        Worker(Strategy s)
+        {
+            this.s = s;
+        }
+
+        public Worker call() throws IOException
+        {
+            for (int g = next.getAndIncrement(); g < games;
+                 g = next.getAndIncrement())
+            {
+                long began = System.nanoTime();
+                long game_seed = seed(g);
+                Map m;
+                RecordingMap r = null;
+                if (density > 0)
+                    m = new ChunkedMap(rows, columns, density, game_seed);
+                else
+                {
+                    m = new MineMap(mines, rows, columns, game_seed, start);
+                    if (log != null)
+                        r = new RecordingMap(m, mines, game_seed, start);
+                }
+                try
+                {
+                    s.play(r != null ? r : m);
+                }
+                catch (RuntimeException e)
+                {
+                    failures++;
+                    fail(g, e);
+                }
+                latency[g] = System.nanoTime() - began;
+                if (m.done() && m.won())
+                    wins++;
+                else
+                {
+                    lose(game_seed);
+                    if (r != null)
+                        log(r);
+                }
+                if (m.probed())
+                    probed++;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package sweeper;
+
+/**
+ * A first in, first out queue of map cells, where a cell is encoded by its
+ * index in the map. A cell is held at most once, so adding a cell that is
+ * already queued does nothing. Every operation takes constant time.
+ */
+public class CellQueue
+{
+    private int[] cells;
+    private boolean[] queued;
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity the number of cells in the map.
+     */
+    public CellQueue(int capacity)
+    {
+        cells = new int[capacity];
+        queued = new boolean[capacity];
+    }
+
+    /**
+     * Adds a cell to the end of the queue, unless it is already queued.
+     *
+     * @param cell index of a cell in the map.
+     * @return true if the cell was added.
+     */
+    public boolean add(int cell)
+    {
+        if (queued[cell])
+            return false;
+
+        int tail = head + size;
+        if (tail >= cells.length)
+            tail -= cells.length;
+
+        cells[tail] = cell;
+        queued[cell] = true;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the cell at the front of the queue.
+     *
+     * @return index of the removed cell.
+     */
+    public int removeFirst()
+    {
+        int cell = cells[head];
+
+        head++;
+        if (head == cells.length)
+            head = 0;
+
+        queued[cell] = false;
+        size--;
+        return cell;
+    }
+
+    public boolean contains(int cell)
+    {
+        return queued[cell];
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        while (size > 0)
+            removeFirst();
+
+        head = 0;
+    }
+}
@@ -0,0 +1,99 @@
+package sweeper;
+
+import java.util.Arrays;
+
+/**
+ * A set of map cells, where a cell is encoded by its index in the map.
+ * Adding, removing and membership tests take constant time. The members
+ * can be walked by position, but removing a member moves the last member
+ * into its position, so the order is not kept.
+ */
+public class CellSet
+{
+    private int[] cells;
+    private int[] position;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     *
+     * @param capacity the number of cells in the map.
+     */
+    public CellSet(int capacity)
+    {
+        cells = new int[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Adds a cell to the set.
+     *
+     * @param cell index of a cell in the map.
+     * @return true if the cell was not already in the set.
+     */
+    public boolean add(int cell)
+    {
+        if (position[cell] >= 0)
+            return false;
+
+        cells[size] = cell;
+        position[cell] = size;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a cell from the set.
+     *
+     * @param cell index of a cell in the map.
+     * @return true if the cell was in the set.
+     */
+    public boolean remove(int cell)
+    {
+        int i = position[cell];
+        if (i < 0)
+            return false;
+
+        size--;
+        int last = cells[size];
+        cells[i] = last;
+        position[last] = i;
+        position[cell] = -1;
+        return true;
+    }
+
+    public boolean contains(int cell)
+    {
+        return position[cell] >= 0;
+    }
+
+    /**
+     * Gets the member at a position.
+     *
+     * @param i a position less than size().
+     * @return index of the cell at that position.
+     */
+    public int get(int i)
+    {
+        return cells[i];
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+            position[cells[i]] = -1;
+
+        size = 0;
+    }
+}
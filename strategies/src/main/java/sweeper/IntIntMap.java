@@ -0,0 +1,162 @@
+package sweeper;
+
+import java.util.Arrays;
+
+/**
+ * A map from map cells to int counts, where a cell is encoded by its index
+ * in the map. The entries are kept in an open addressing hash table with
+ * linear probing, so nothing is allocated per entry. The entries can be
+ * walked by position in the order they were added.
+ */
+public class IntIntMap
+{
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int[] order;   // slots of the entries, in the order they were added
+    private int size;
+
+    public IntIntMap()
+    {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param capacity the number of entries expected.
+     */
+    public IntIntMap(int capacity)
+    {
+        int slots = 16;
+        while (slots < capacity * 2)
+            slots *= 2;
+
+        keys = new int[slots];
+        values = new int[slots];
+        order = new int[slots / 2];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Adds an amount to the count of a cell. A cell without an entry
+     * gets one, starting from 0.
+     *
+     * @param key index of a cell in the map.
+     * @param amount the amount to add, which may be 0.
+     */
+    public void add(int key, int amount)
+    {
+        int slot = find(key);
+
+        if (keys[slot] == EMPTY)
+        {
+            if (size == order.length)
+            {
+                grow();
+                slot = find(key);
+            }
+
+            keys[slot] = key;
+            order[size++] = slot;
+        }
+
+        values[slot] += amount;
+    }
+
+    /**
+     * Gets the count of a cell.
+     *
+     * @param key index of a cell in the map.
+     * @return the count, or 0 if the cell has no entry.
+     */
+    public int get(int key)
+    {
+        int slot = find(key);
+        return keys[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    public boolean containsKey(int key)
+    {
+        return keys[find(key)] != EMPTY;
+    }
+
+    /**
+     * Gets the cell of the entry at a position.
+     *
+     * @param i a position less than size().
+     * @return index of the cell.
+     */
+    public int keyAt(int i)
+    {
+        return keys[order[i]];
+    }
+
+    /**
+     * Gets the count of the entry at a position.
+     *
+     * @param i a position less than size().
+     * @return the count.
+     */
+    public int valueAt(int i)
+    {
+        return values[order[i]];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            keys[order[i]] = EMPTY;
+            values[order[i]] = 0;
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot where it belongs.
+     */
+    private int find(int key)
+    {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    private void grow()
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldOrder = order;
+
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        order = new int[oldOrder.length * 2];
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < size; i++)
+        {
+            int slot = find(oldKeys[oldOrder[i]]);
+            keys[slot] = oldKeys[oldOrder[i]];
+            values[slot] = oldValues[oldOrder[i]];
+            order[i] = slot;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package sweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Proves unprobed nodes safe or bombs by treating the frontier as a system
+ * of linear equations.
+ * <p>
+ * Each probed node on the frontier gives an equation: the sum of the 0/1
+ * bomb variables of its unprobed neighbors equals its number of unknown
+ * bombs. The equations are reduced by integer Gaussian elimination, which
+ * combines neighboring constraints the way the single node rules cannot.
+ * A reduced equation forces a variable when the variable's coefficient is
+ * larger than the slack between the right hand side and the smallest or
+ * largest value the equation can take.
+ * <p>
+ * Equations that share no variable, directly or through other equations,
+ * are reduced separately. Only groups that hold an equation marked as
+ * touched are reduced, since the others gave no deduction last time.
+ * <p>
+ * The equations are kept from one reduction to the next, one for each
+ * probed node, so only those near a change need to be set again.
+ */
+public class LinearDeducer
+{
+    // larger groups are left to the probability solver
+    private static final int VARIABLE_LIMIT = 400;
+
+    // the nodes of equation e are nodes[e * NEIGHBORS] up to
+    // nodes[e * NEIGHBORS + count[e]], and it belongs to probed node owner[e]
+    private int equations;
+    private int[] equationOf = new int[0];
+    private int[] owner = new int[16];
+    private int[] count = new int[16];
+    private int[] target = new int[16];
+    private boolean[] touched = new boolean[16];
+    private int[] nodes = new int[16 * Neighborhood.NEIGHBORS];
+
+    private int variables;
+    private int[] variable = new int[64];
+    private int[] parent = new int[64];
+    private IntIntMap variableOf = new IntIntMap();
+
+    // the deductions found by solve
+    private int deductions;
+    private int[] deduced = new int[16];
+    private boolean[] deducedBomb = new boolean[16];
+
+    /**
+     * Removes all equations and deductions, for a new map.
+     *
+     * @param size the number of nodes in the map.
+     */
+    public void reset(int size)
+    {
+        equations = 0;
+        equationOf = new int[size];
+        Arrays.fill(equationOf, -1);
+        deductions = 0;
+    }
+
+    /**
+     * Sets the equation of a probed node, replacing the one it had. The
+     * equation is marked as touched.
+     *
+     * @param node the probed node.
+     * @param cells the unprobed nodes next to it.
+     * @param n the number of those nodes, at most Neighborhood.NEIGHBORS.
+     *          With none, the node's equation is removed.
+     * @param bombs the number of those nodes that hold a bomb.
+     */
+    public void setConstraint(int node, int[] cells, int n, int bombs)
+    {
+        if (n == 0)
+        {
+            removeConstraint(node);
+            return;
+        }
+
+        int e = equationOf[node];
+        if (e < 0)
+        {
+            if (equations == target.length)
+            {
+                owner = Arrays.copyOf(owner, equations * 2);
+                count = Arrays.copyOf(count, equations * 2);
+                target = Arrays.copyOf(target, equations * 2);
+                touched = Arrays.copyOf(touched, equations * 2);
+                nodes = Arrays.copyOf(nodes, equations * 2 * Neighborhood.NEIGHBORS);
+            }
+
+            e = equations++;
+            equationOf[node] = e;
+            owner[e] = node;
+        }
+
+        System.arraycopy(cells, 0, nodes, e * Neighborhood.NEIGHBORS, n);
+        count[e] = n;
+        target[e] = bombs;
+        touched[e] = true;
+    }
+
+    /**
+     * Removes the equation of a node, if it has one. The last equation
+     * takes its place.
+     *
+     * @param node a node of the map.
+     */
+    public void removeConstraint(int node)
+    {
+        int e = equationOf[node];
+        if (e < 0)
+            return;
+
+        equationOf[node] = -1;
+        equations--;
+        if (e == equations)
+            return;
+
+        int last = owner[equations];
+        System.arraycopy(nodes, equations * Neighborhood.NEIGHBORS, nodes, e * Neighborhood.NEIGHBORS, count[equations]);
+        owner[e] = last;
+        count[e] = count[equations];
+        target[e] = target[equations];
+        touched[e] = touched[equations];
+        equationOf[last] = e;
+    }
+
+    /**
+     * Marks the equation of a node, if it has one, to be reduced by the
+     * next solve, as something near it changed.
+     *
+     * @param node a node of the map.
+     */
+    public void touch(int node)
+    {
+        int e = equationOf[node];
+        if (e >= 0)
+            touched[e] = true;
+    }
+
+    /**
+     * Reduces the touched groups of equations, then marks every equation
+     * untouched.
+     *
+     * @return the number of nodes proven safe or bombs.
+     */
+    public int solve()
+    {
+        // number the variables of all equations
+        variables = 0;
+        variableOf.clear();
+        for (int e = 0; e < equations; e++)
+        {
+            for (int i = e * Neighborhood.NEIGHBORS; i < e * Neighborhood.NEIGHBORS + count[e]; i++)
+            {
+                if (!variableOf.containsKey(nodes[i]))
+                {
+                    if (variables == variable.length)
+                    {
+                        variable = Arrays.copyOf(variable, variables * 2);
+                        parent = Arrays.copyOf(parent, variables * 2);
+                    }
+
+                    variableOf.add(nodes[i], variables);
+                    variable[variables++] = nodes[i];
+                }
+            }
+        }
+
+        for (int v = 0; v < variables; v++)
+            parent[v] = v;
+
+        for (int e = 0; e < equations; e++)
+        {
+            int first = e * Neighborhood.NEIGHBORS;
+            int a = find(parent, variableOf.get(nodes[first]));
+            for (int i = first + 1; i < first + count[e]; i++)
+            {
+                int b = find(parent, variableOf.get(nodes[i]));
+                parent[b] = a;
+            }
+        }
+
+        // the equations of each touched group, by the root of the group
+        IntIntMap groupOf = new IntIntMap();
+        ArrayList<ArrayList<Integer>> groups = new ArrayList<ArrayList<Integer>>();
+        for (int e = 0; e < equations; e++)
+        {
+            int root = find(parent, variableOf.get(nodes[e * Neighborhood.NEIGHBORS]));
+            if (touched[e] && !groupOf.containsKey(root))
+            {
+                groupOf.add(root, groups.size());
+                groups.add(new ArrayList<Integer>());
+            }
+        }
+        for (int e = 0; e < equations; e++)
+        {
+            int root = find(parent, variableOf.get(nodes[e * Neighborhood.NEIGHBORS]));
+            if (groupOf.containsKey(root))
+                groups.get(groupOf.get(root)).add(e);
+        }
+
+        deductions = 0;
+        boolean[] done = new boolean[variables];
+        for (ArrayList<Integer> group: groups)
+            reduce(group, done);
+
+        Arrays.fill(touched, 0, equations, false);
+        return deductions;
+    }
+
+    /**
+     * @param i a deduction less than the number returned by solve().
+     * @return the node of the deduction.
+     */
+    public int node(int i)
+    {
+        return deduced[i];
+    }
+
+    /**
+     * @param i a deduction less than the number returned by solve().
+     * @return true if the node holds a bomb, false if it is safe.
+     */
+    public boolean bomb(int i)
+    {
+        return deducedBomb[i];
+    }
+
+    private static int find(int[] parent, int v)
+    {
+        while (parent[v] != v)
+        {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Reduces one group of equations to row echelon form and collects the
+     * variables forced by the reduced equations. A group whose coefficients
+     * grow past a long is given up, leaving it to the probability solver.
+     */
+    private void reduce(ArrayList<Integer> group, boolean[] done)
+    {
+        // number the variables of the group
+        IntIntMap column = new IntIntMap();
+        for (int e: group)
+        {
+            for (int i = e * Neighborhood.NEIGHBORS; i < e * Neighborhood.NEIGHBORS + count[e]; i++)
+            {
+                if (!column.containsKey(nodes[i]))
+                    column.add(nodes[i], column.size());
+            }
+        }
+
+        int columns = column.size();
+        if (columns > VARIABLE_LIMIT)
+            return;
+
+        // each row holds the coefficients, then the right hand side
+        long[][] rows = new long[group.size()][columns + 1];
+        for (int r = 0; r < rows.length; r++)
+        {
+            int e = group.get(r);
+            for (int i = e * Neighborhood.NEIGHBORS; i < e * Neighborhood.NEIGHBORS + count[e]; i++)
+                rows[r][column.get(nodes[i])] = 1;
+            rows[r][columns] = target[e];
+        }
+
+        try
+        {
+            eliminate(rows, columns);
+        }
+        catch (ArithmeticException e)
+        {
+            return;
+        }
+
+        for (long[] row: rows)
+            deduce(row, columns, column, done);
+    }
+
+    /**
+     * Reduces rows to row echelon form by integer elimination.
+     *
+     * @throws ArithmeticException if a coefficient overflows.
+     */
+    private static void eliminate(long[][] rows, int columns)
+    {
+        int rank = 0;
+        for (int c = 0; c < columns && rank < rows.length; c++)
+        {
+            int pivot = rank;
+            while (pivot < rows.length && rows[pivot][c] == 0)
+                pivot++;
+            if (pivot == rows.length)
+                continue;
+
+            long[] tmp = rows[rank];
+            rows[rank] = rows[pivot];
+            rows[pivot] = tmp;
+
+            for (int r = 0; r < rows.length; r++)
+            {
+                if (r == rank || rows[r][c] == 0)
+                    continue;
+
+                long p = rows[rank][c];
+                long f = rows[r][c];
+                for (int j = 0; j <= columns; j++)
+                    rows[r][j] = Math.subtractExact(Math.multiplyExact(rows[r][j], p), Math.multiplyExact(rows[rank][j], f));
+                normalize(rows[r]);
+            }
+            rank++;
+        }
+    }
+
+    /**
+     * Divides a row by the greatest common divisor of its entries.
+     */
+    private static void normalize(long[] row)
+    {
+        long g = 0;
+        for (long a: row)
+            g = gcd(g, Math.abs(a));
+
+        if (g > 1)
+        {
+            for (int j = 0; j < row.length; j++)
+                row[j] /= g;
+        }
+    }
+
+    private static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Finds the variables a reduced equation forces, given that every
+     * variable is 0 or 1.
+     */
+    private void deduce(long[] row, int columns, IntIntMap column, boolean[] done)
+    {
+        long least = 0;
+        long most = 0;
+        long rhs = row[columns];
+        long over;     // how far the sum may rise above its least value
+        long under;    // how far the sum may fall below its largest value
+        try
+        {
+            for (int j = 0; j < columns; j++)
+            {
+                if (row[j] < 0)
+                    least = Math.addExact(least, row[j]);
+                else
+                    most = Math.addExact(most, row[j]);
+            }
+            over = Math.subtractExact(rhs, least);
+            under = Math.subtractExact(most, rhs);
+        }
+        catch (ArithmeticException e)
+        {
+            return;
+        }
+
+        if (over < 0 || under < 0)
+            return;
+
+        for (int k = 0; k < column.size(); k++)
+        {
+            long a = row[column.valueAt(k)];
+            if (a == 0)
+                continue;
+
+            // a bomb at this node would push the sum past one of its bounds
+            boolean bomb;
+            if (a > 0 && a > over)
+                bomb = false;
+            else if (a > 0 && a > under)
+                bomb = true;
+            else if (a < 0 && -a > under)
+                bomb = false;
+            else if (a < 0 && -a > over)
+                bomb = true;
+            else
+                continue;
+
+            int v = variableOf.get(column.keyAt(k));
+            if (done[v])
+                continue;
+            done[v] = true;
+
+            if (deductions == deduced.length)
+            {
+                deduced = Arrays.copyOf(deduced, deductions * 2);
+                deducedBomb = Arrays.copyOf(deducedBomb, deductions * 2);
+            }
+            deduced[deductions] = variable[v];
+            deducedBomb[deductions] = bomb;
+            deductions++;
+        }
+    }
+}
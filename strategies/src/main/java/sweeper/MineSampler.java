@@ -0,0 +1,716 @@
+package sweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Estimates the probability that each unprobed node next to a probed node
+ * holds a bomb, for frontiers too large for the probability solver.
+ * <p>
+ * The constraints are those of the probability solver. Several Markov
+ * chains walk over bomb arrangements of the variables by flipping one
+ * variable or exchanging the values of two variables that share a
+ * constraint. A broken constraint is not forbidden but costs a factor of
+ * e^-BETA per missing or extra bomb, so a chain can cross between
+ * arrangements that meet every constraint. An arrangement using K bombs on
+ * the frontier is weighted by C(U, M - K), the ways to place the rest of the
+ * bombs away from it. The variables of a component, which shares no
+ * constraint with the others, are counted whenever the arrangement meets the
+ * component's constraints, so a broken constraint far away does not throw a
+ * sample away. The counts follow the exact distribution, apart from the
+ * small effect the other components have on the number of frontier bombs.
+ * <p>
+ * The chains run in parallel and keep their arrangements from one move to
+ * the next. A chain only settles again around the variables that are new
+ * or in a broken constraint before it is counted. Sampling runs in rounds
+ * and stops once the chains agree, measured by the largest potential scale
+ * reduction of any variable, or after a fixed number of rounds.
+ */
+public class MineSampler
+{
+    // fixed, so a game plays the same whatever the number of processors
+    private static final int CHAINS = 8;
+    private static final double BETA = 2.5;
+
+    // steps spent settling a chain, for each variable that needs it
+    private static final int SETTLE_STEPS = 32;
+
+    // each round, a chain takes this many steps per variable
+    private static final int ROUND_SWEEPS = 32;
+    private static final int ROUND_STEP_LIMIT = 1 << 18;
+    private static final int MIN_ROUNDS = 2;
+    private static final int MAX_ROUNDS = 16;
+    private static final double CONVERGED = 1.01;
+
+    // the nodes of constraint c are nodes[start[c]] up to nodes[start[c + 1]]
+    private int constraints;
+    private int[] start = new int[17];
+    private int[] target = new int[16];
+    private int[] nodes = new int[64];
+
+    private int variables;
+    private int[] variable = new int[64];
+    private IntIntMap variableOf = new IntIntMap();
+
+    // the constraints of variable v are constraintOf[firstOf[v]] up to constraintOf[firstOf[v + 1]]
+    private int[] firstOf = new int[0];
+    private int[] constraintOf = new int[0];
+
+    // variables that share no constraint, directly or through others, are in different components
+    private int components;
+    private int[] component = new int[0];
+    private int[] componentSize = new int[0];
+
+    // the variables of the last solve in increasing order of node, and the chains
+    private int[] warmNodes = new int[0];
+    private final Chain[] chains = new Chain[CHAINS];
+
+    private int others;
+    private int bombs;
+
+    private double[] probability = new double[64];
+    private double otherProbability;
+    private long samples;
+    private double rhat;
+    private double acceptance;
+
+    public MineSampler()
+    {
+        for (int i = 0; i < CHAINS; i++)
+            chains[i] = new Chain();
+    }
+
+    /**
+     * Removes all constraints, ready for the next position.
+     */
+    public void clear()
+    {
+        constraints = 0;
+        variables = 0;
+        variableOf.clear();
+    }
+
+    /**
+     * Forgets the arrangements of the chains, ready for a new game.
+     */
+    public void reset()
+    {
+        clear();
+        warmNodes = new int[0];
+        for (Chain chain : chains)
+            chain.warm = new byte[0];
+    }
+
+    /**
+     * Adds a constraint.
+     *
+     * @param cells the unprobed nodes next to a probed node.
+     * @param n the number of nodes.
+     * @param bombs the number of those nodes that hold a bomb.
+     */
+    public void addConstraint(int[] cells, int n, int bombs)
+    {
+        if (n == 0)
+            return;
+
+        if (constraints == target.length)
+        {
+            target = Arrays.copyOf(target, constraints * 2);
+            start = Arrays.copyOf(start, constraints * 2 + 1);
+        }
+        if (start[constraints] + n > nodes.length)
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, start[constraints] + n));
+
+        for (int i = 0; i < n; i++)
+        {
+            if (!variableOf.containsKey(cells[i]))
+            {
+                if (variables == variable.length)
+                    variable = Arrays.copyOf(variable, variables * 2);
+
+                variableOf.add(cells[i], variables);
+                variable[variables++] = cells[i];
+            }
+
+            // constraints hold variables rather than nodes while sampling
+            nodes[start[constraints] + i] = variableOf.get(cells[i]);
+        }
+
+        target[constraints] = bombs;
+        constraints++;
+        start[constraints] = start[constraints - 1] + n;
+    }
+
+    /**
+     * Estimates the probabilities.
+     *
+     * @param unknown the number of unprobed, unmarked nodes in the map.
+     * @param bombs the number of bombs not yet marked.
+     * @param seed the seed of the chains' random numbers.
+     * @return true if the probabilities were estimated, false if no chain
+     *         found an arrangement that meets the constraints of any
+     *         component.
+     */
+    public boolean solve(int unknown, int bombs, long seed)
+    {
+        this.others = unknown - variables;
+        this.bombs = bombs;
+        samples = 0;
+        rhat = Double.POSITIVE_INFINITY;
+        acceptance = 0.0;
+
+        if (variables == 0)
+            return false;
+
+        index();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Chain> tasks = new ArrayList<Chain>(CHAINS);
+        for (Chain chain : chains)
+        {
+            chain.start(random.split());
+            tasks.add(chain);
+        }
+
+        int sweeps = Math.max(1, Math.min(ROUND_SWEEPS, ROUND_STEP_LIMIT / variables));
+        for (int round = 1; round <= MAX_ROUNDS; round++)
+        {
+            for (Chain chain : chains)
+                chain.steps = sweeps * variables;
+            run(tasks);
+
+            rhat = potentialScaleReduction();
+            if (round >= MIN_ROUNDS && rhat < CONVERGED)
+                break;
+        }
+
+        keepWarm();
+
+        long taken = 0;
+        long accepted = 0;
+        long[] counted = new long[components];
+        if (probability.length < variables)
+            probability = new double[variables];
+        Arrays.fill(probability, 0, variables, 0.0);
+        for (Chain chain : chains)
+        {
+            taken += chain.taken;
+            accepted += chain.accepted;
+            for (int p = 0; p < components; p++)
+                counted[p] += chain.zeroTime[p];
+            for (int v = 0; v < variables; v++)
+                probability[v] += chain.count[v];
+        }
+        acceptance = taken > 0 ? (double) accepted / taken : 0.0;
+
+        // the nodes of a component never counted are as likely as the others
+        double frontierBombs = 0.0;
+        int uncounted = 0;
+        for (int v = 0; v < variables; v++)
+        {
+            if (counted[component[v]] == 0)
+            {
+                probability[v] = Double.NaN;
+                uncounted++;
+                continue;
+            }
+            probability[v] /= counted[component[v]];
+            frontierBombs += probability[v];
+        }
+        for (int p = 0; p < components; p++)
+            samples += counted[p];
+
+        if (uncounted == variables)
+            return false;
+
+        otherProbability = others + uncounted > 0 ? (bombs - frontierBombs) / (others + uncounted) : 0.0;
+        return true;
+    }
+
+    public int variables()
+    {
+        return variables;
+    }
+
+    /**
+     * @param i a variable less than variables().
+     * @return the node of the variable.
+     */
+    public int node(int i)
+    {
+        return variable[i];
+    }
+
+    /**
+     * @param i a variable less than variables().
+     * @return the estimated probability that the node of the variable holds a bomb.
+     */
+    public double probability(int i)
+    {
+        return probability[i];
+    }
+
+    /**
+     * @return the estimated probability that an unknown node in no constraint holds a bomb.
+     */
+    public double otherProbability()
+    {
+        return otherProbability;
+    }
+
+    /**
+     * @return the number of arrangements counted by all chains.
+     */
+    public long samples()
+    {
+        return samples;
+    }
+
+    /**
+     * @return the largest potential scale reduction of any variable; values
+     *         near 1 mean the chains agree, and it is infinite when a chain
+     *         counted fewer than two arrangements.
+     */
+    public double rhat()
+    {
+        return rhat;
+    }
+
+    /**
+     * @return the fraction of proposed steps the chains took.
+     */
+    public double acceptance()
+    {
+        return acceptance;
+    }
+
+    /**
+     * Lists the constraints of each variable, and splits the variables into
+     * components that share no constraint.
+     */
+    private void index()
+    {
+        if (firstOf.length < variables + 1)
+            firstOf = new int[variables + 1];
+        Arrays.fill(firstOf, 0, variables + 1, 0);
+
+        for (int i = 0; i < start[constraints]; i++)
+            firstOf[nodes[i] + 1]++;
+        for (int v = 0; v < variables; v++)
+            firstOf[v + 1] += firstOf[v];
+
+        if (constraintOf.length < start[constraints])
+            constraintOf = new int[start[constraints]];
+        int[] filled = Arrays.copyOf(firstOf, variables);
+        for (int c = 0; c < constraints; c++)
+        {
+            for (int i = start[c]; i < start[c + 1]; i++)
+                constraintOf[filled[nodes[i]]++] = c;
+        }
+
+        int[] parent = new int[variables];
+        for (int v = 0; v < variables; v++)
+            parent[v] = v;
+        for (int c = 0; c < constraints; c++)
+        {
+            for (int i = start[c] + 1; i < start[c + 1]; i++)
+                parent[find(parent, nodes[i])] = find(parent, nodes[start[c]]);
+        }
+
+        if (component.length < variables)
+            component = new int[variables];
+        int[] number = new int[variables];
+        Arrays.fill(number, -1);
+        components = 0;
+        for (int v = 0; v < variables; v++)
+        {
+            int root = find(parent, v);
+            if (number[root] < 0)
+                number[root] = components++;
+            component[v] = number[root];
+        }
+
+        componentSize = new int[components];
+        for (int v = 0; v < variables; v++)
+            componentSize[component[v]]++;
+    }
+
+    private static int find(int[] parent, int v)
+    {
+        while (parent[v] != v)
+        {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Runs one round of every chain, on as many processors as there are.
+     */
+    private void run(List<Chain> tasks)
+    {
+        try
+        {
+            for (Future<Void> f : ForkJoinPool.commonPool().invokeAll(tasks))
+                f.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Computes the largest potential scale reduction of any variable over
+     * the arrangements the chains counted. The arrangements after each
+     * step are counted, but are far from independent, so the number of
+     * sweeps over a component stands for the number of samples.
+     */
+    private double potentialScaleReduction()
+    {
+        double[] p = new double[CHAINS];
+        double worst = 1.0;
+        for (int v = 0; v < variables; v++)
+        {
+            int size = componentSize[component[v]];
+            double n = 0.0;
+            for (Chain chain : chains)
+            {
+                long counted = chain.zeroTime[component[v]];
+                if (counted < 2 * size)
+                    return Double.POSITIVE_INFINITY;
+                n += (double) counted / size;
+            }
+            n /= CHAINS;
+
+            double within = 0.0;
+            double mean = 0.0;
+            for (int j = 0; j < CHAINS; j++)
+            {
+                // half a bomb and half a safe node more, so a rare bomb is not a certainty
+                p[j] = (chains[j].count[v] + 0.5) / (chains[j].zeroTime[component[v]] + 1.0);
+                within += p[j] * (1.0 - p[j]);
+                mean += p[j];
+            }
+            within /= CHAINS;
+            mean /= CHAINS;
+
+            double between = 0.0;
+            for (int j = 0; j < CHAINS; j++)
+                between += (p[j] - mean) * (p[j] - mean);
+            between /= CHAINS - 1;
+
+            double pooled = (n - 1) / n * within + between;
+            worst = Math.max(worst, Math.sqrt(pooled / within));
+        }
+
+        return worst;
+    }
+
+    /**
+     * Remembers the arrangement of each chain by node, for the next solve.
+     */
+    private void keepWarm()
+    {
+        long[] order = new long[variables];
+        for (int v = 0; v < variables; v++)
+            order[v] = (long) variable[v] << 32 | v;
+        Arrays.sort(order);
+
+        warmNodes = new int[variables];
+        for (int i = 0; i < variables; i++)
+            warmNodes[i] = (int) (order[i] >>> 32);
+
+        for (Chain chain : chains)
+        {
+            chain.warm = new byte[variables];
+            for (int i = 0; i < variables; i++)
+                chain.warm[i] = chain.x[(int) order[i]];
+        }
+    }
+
+    /**
+     * One Markov chain over the bomb arrangements of the variables.
+     * <p>
+     * The arrangement after each step is counted for every component whose
+     * constraints it meets, as long as the number of frontier bombs is one
+     * the rest of the map allows. Each component keeps a clock of the steps
+     * counted for it, and a variable's count is brought up to date from the
+     * clock of its component only when the variable changes, so a step
+     * costs the same however many components there are.
+     */
+    private class Chain implements Callable<Void>
+    {
+        byte[] warm = new byte[0];      // the arrangement of the last solve, by warmNodes
+        byte[] x = new byte[0];         // 1 if the variable holds a bomb
+        int[] sum = new int[0];         // bombs of each constraint
+        int[] broken = new int[0];      // bombs missing or extra over the constraints of each component
+        int energy;                     // over all constraints, and the frontier bombs
+        int frontierBombs;
+        SplittableRandom random;
+
+        long time;                      // steps taken since counting began
+        long[] zeroTime = new long[0];  // steps counted for each component
+        long[] zeroStart = new long[0]; // when counting for a component last started, or -1
+        long[] count = new long[0];     // steps counted with a bomb at each variable
+        long[] since = new long[0];     // the component's clock when each variable last changed
+
+        int steps;                      // steps to take in the next round
+        long taken;
+        long accepted;
+
+        /**
+         * Starts from the arrangement of the last solve, and settles the
+         * variables that are new or in a broken constraint.
+         */
+        void start(SplittableRandom random)
+        {
+            this.random = random;
+            if (x.length < variables)
+            {
+                x = new byte[variables];
+                count = new long[variables];
+                since = new long[variables];
+            }
+            if (sum.length < constraints)
+                sum = new int[constraints];
+            if (broken.length < components)
+            {
+                broken = new int[components];
+                zeroTime = new long[components];
+                zeroStart = new long[components];
+            }
+            taken = 0;
+            accepted = 0;
+
+            int[] settle = new int[variables];
+            int unsettled = 0;
+            boolean[] listed = new boolean[variables];
+
+            frontierBombs = 0;
+            for (int v = 0; v < variables; v++)
+            {
+                int i = Arrays.binarySearch(warmNodes, variable[v]);
+                x[v] = i >= 0 && i < warm.length ? warm[i] : 0;
+                frontierBombs += x[v];
+                if (i < 0)
+                {
+                    settle[unsettled++] = v;
+                    listed[v] = true;
+                }
+            }
+
+            Arrays.fill(broken, 0, components, 0);
+            energy = penalty(frontierBombs);
+            for (int c = 0; c < constraints; c++)
+            {
+                sum[c] = 0;
+                for (int i = start[c]; i < start[c + 1]; i++)
+                    sum[c] += x[nodes[i]];
+                energy += Math.abs(sum[c] - target[c]);
+                broken[component[nodes[start[c]]]] += Math.abs(sum[c] - target[c]);
+
+                if (sum[c] == target[c])
+                    continue;
+                for (int i = start[c]; i < start[c + 1]; i++)
+                {
+                    if (!listed[nodes[i]])
+                    {
+                        settle[unsettled++] = nodes[i];
+                        listed[nodes[i]] = true;
+                    }
+                }
+            }
+
+            // the clocks do not run while settling, so the steps need not be fair to every variable
+            Arrays.fill(zeroStart, 0, components, -1);
+            if (penalty(frontierBombs) > 0)
+                unsettled = variables;
+            long budget = (long) SETTLE_STEPS * unsettled;
+            for (long s = 0; s < budget && energy > 0; s++)
+                step(unsettled == variables ? random.nextInt(variables) : settle[random.nextInt(unsettled)]);
+
+            time = 0;
+            Arrays.fill(count, 0, variables, 0);
+            Arrays.fill(since, 0, variables, 0);
+            Arrays.fill(zeroTime, 0, components, 0);
+            boolean allowed = penalty(frontierBombs) == 0;
+            for (int p = 0; p < components; p++)
+                zeroStart[p] = allowed && broken[p] == 0 ? 0 : -1;
+        }
+
+        /**
+         * Takes a round of steps, and brings the counts of every variable up
+         * to date at the end.
+         */
+        public Void call()
+        {
+            for (int s = 0; s < steps; s++)
+            {
+                step(random.nextInt(variables));
+                time++;
+            }
+
+            for (int v = 0; v < variables; v++)
+                flip(v, 0);
+            for (int p = 0; p < components; p++)
+                stopClock(p);
+            restartClocks();
+            return null;
+        }
+
+        /**
+         * Proposes flipping variable a, or exchanging its value with a
+         * variable that shares a constraint, and takes the step by the
+         * Metropolis rule. Both proposals are their own reverse: an exchange
+         * is proposed by choosing a constraint c of a and a variable b in c,
+         * and from the new arrangement the same choices, made with the same
+         * probability, exchange the values back. No ratio of the degrees of
+         * a and b belongs in the acceptance; it would bias the chain.
+         */
+        private void step(int a)
+        {
+            taken++;
+            if (random.nextBoolean())
+            {
+                int c = constraintOf[firstOf[a] + random.nextInt(firstOf[a + 1] - firstOf[a])];
+                int b = nodes[start[c] + random.nextInt(start[c + 1] - start[c])];
+                if (x[a] == x[b])
+                    return;
+
+                int delta = change(a, 1 - 2 * x[a]) + change(b, 1 - 2 * x[b]);
+                if (accept(-BETA * delta))
+                    energy += delta;
+                else
+                {
+                    change(a, 1 - 2 * x[a]);
+                    change(b, 1 - 2 * x[b]);
+                }
+            }
+            else
+            {
+                int d = 1 - 2 * x[a];
+                double weight = d > 0 ? weightUp(frontierBombs) : -weightUp(frontierBombs - 1);
+                int delta = change(a, d);
+                if (accept(weight - BETA * delta))
+                    energy += delta;
+                else
+                    change(a, 1 - 2 * x[a]);
+            }
+        }
+
+        private boolean accept(double logRatio)
+        {
+            if (logRatio >= 0.0 || random.nextDouble() < Math.exp(logRatio))
+            {
+                accepted++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Adds d to variable v, and starts or stops the clocks it affects.
+         *
+         * @return the change in energy.
+         */
+        private int change(int v, int d)
+        {
+            int p = component[v];
+            flip(v, d);
+
+            int before = penalty(frontierBombs);
+            frontierBombs += d;
+            int after = penalty(frontierBombs);
+            int delta = after - before;
+
+            int was = broken[p];
+            for (int i = firstOf[v]; i < firstOf[v + 1]; i++)
+            {
+                int c = constraintOf[i];
+                broken[p] -= Math.abs(sum[c] - target[c]);
+                sum[c] += d;
+                broken[p] += Math.abs(sum[c] - target[c]);
+            }
+            delta += broken[p] - was;
+
+            if ((before == 0) != (after == 0))
+            {
+                // rare, so every clock may be visited
+                for (int q = 0; q < components; q++)
+                    stopClock(q);
+                restartClocks();
+            }
+            else if ((was == 0) != (broken[p] == 0) && after == 0)
+            {
+                if (broken[p] == 0)
+                    zeroStart[p] = time;
+                else
+                    stopClock(p);
+            }
+            return delta;
+        }
+
+        /**
+         * Counts the steps since variable v last changed, and adds d to it.
+         */
+        private void flip(int v, int d)
+        {
+            int p = component[v];
+            long clock = zeroTime[p] + (zeroStart[p] < 0 ? 0 : time - zeroStart[p]);
+            count[v] += x[v] * (clock - since[v]);
+            since[v] = clock;
+            x[v] += d;
+        }
+
+        private void stopClock(int p)
+        {
+            if (zeroStart[p] >= 0)
+                zeroTime[p] += time - zeroStart[p];
+            zeroStart[p] = -1;
+        }
+
+        private void restartClocks()
+        {
+            if (penalty(frontierBombs) > 0)
+                return;
+            for (int p = 0; p < components; p++)
+            {
+                if (broken[p] == 0)
+                    zeroStart[p] = time;
+            }
+        }
+    }
+
+    /**
+     * @return how far k frontier bombs are from the numbers the rest of
+     *         the map allows.
+     */
+    private int penalty(int k)
+    {
+        return Math.max(0, bombs - others - k) + Math.max(0, k - bombs);
+    }
+
+    /**
+     * @return ln(C(U, M - k - 1) / C(U, M - k)), the change in weight from
+     *         one more frontier bomb, or 0 outside the allowed numbers.
+     */
+    private double weightUp(int k)
+    {
+        int rest = bombs - k;
+        if (k < bombs - others || rest < 1)
+            return 0.0;
+        return Math.log((double) rest / (others - rest + 1));
+    }
+}
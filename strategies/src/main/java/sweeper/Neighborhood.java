@@ -0,0 +1,149 @@
+package sweeper;
+
+/**
+ * The layout of the nodes of a map surrounded by a border of sentinel
+ * nodes one node wide. A node is kept by its index in the padded grid,
+ * (x + 1) * (columns + 2) + (y + 1), so the eight neighbors of every node
+ * of the map are found by adding the same eight offsets, and no neighbor
+ * walk needs a bounds check. The border nodes are never part of the map;
+ * the strategy treats them as already probed.
+ */
+public class Neighborhood
+{
+    /**
+     * The number of neighbors of a node.
+     */
+    public static final int NEIGHBORS = 8;
+
+    private final int rows;
+    private final int columns;
+    private final int stride;
+    private final int[] offsets;
+
+    /**
+     * Creates the layout of a map.
+     *
+     * @param rows the number of rows of the map.
+     * @param columns the number of columns of the map.
+     * @throws IllegalArgumentException if the padded grid has more nodes
+     *                                  than an int can index.
+     */
+    public Neighborhood(int rows, int columns)
+    {
+        if ((long) (rows + 2) * (columns + 2) > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("a " + columns + "x" + rows + " map is too large to index its nodes with an int");
+
+        this.rows = rows;
+        this.columns = columns;
+        stride = columns + 2;
+        offsets = new int[] {
+            -stride - 1, -stride, -stride + 1,
+            -1, 1,
+            stride - 1, stride, stride + 1
+        };
+    }
+
+    /**
+     * @return the number of rows of the map.
+     */
+    public int rows()
+    {
+        return rows;
+    }
+
+    /**
+     * @return the number of columns of the map.
+     */
+    public int columns()
+    {
+        return columns;
+    }
+
+    /**
+     * @return the number of nodes, including the border.
+     */
+    public int size()
+    {
+        return (rows + 2) * stride;
+    }
+
+    /**
+     * @return the number of nodes of the map, not counting the border.
+     */
+    public int cells()
+    {
+        return rows * columns;
+    }
+
+    /**
+     * Gives the offset to add to a node to reach one of its neighbors.
+     *
+     * @param k a neighbor less than NEIGHBORS.
+     * @return the offset.
+     */
+    public int offset(int k)
+    {
+        return offsets[k];
+    }
+
+    /**
+     * @param x row in the map, or -1 or rows for the border.
+     * @param y column in the map, or -1 or columns for the border.
+     * @return the node at (x, y).
+     */
+    public int node(int x, int y)
+    {
+        return (x + 1) * stride + y + 1;
+    }
+
+    /**
+     * @param node a node.
+     * @return the row of the node in the map.
+     */
+    public int row(int node)
+    {
+        return node / stride - 1;
+    }
+
+    /**
+     * @param node a node.
+     * @return the column of the node in the map.
+     */
+    public int column(int node)
+    {
+        return node % stride - 1;
+    }
+
+    /**
+     * @param node a node.
+     * @return true if the node is part of the border and not of the map.
+     */
+    public boolean border(int node)
+    {
+        int x = row(node);
+        int y = column(node);
+        return x < 0 || x >= rows || y < 0 || y >= columns;
+    }
+
+    /**
+     * Gives the index the map uses for a node in batched operations.
+     *
+     * @param node a node of the map.
+     * @return the index of the cell, y * columns + x in the map's terms.
+     */
+    public int cell(int node)
+    {
+        return row(node) * columns + column(node);
+    }
+
+    /**
+     * Gives the node of a cell index used by the map.
+     *
+     * @param cell index of a cell in the map.
+     * @return the node.
+     */
+    public int nodeOf(int cell)
+    {
+        return node(cell / columns, cell % columns);
+    }
+}
@@ -0,0 +1,507 @@
+package sweeper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Remembers the nodes that the numbers near a frontier node force to be
+ * safe or bombs.
+ * <p>
+ * A window is the 5 by 5 square of nodes around a frontier node. Only the
+ * numbers of the inner 3 by 3 nodes are used, since all of their neighbors
+ * are in the window, so whatever the window forces holds wherever it is
+ * found. An inner node is unknown, known without a number, or a number less
+ * the bombs marked next to it; a rim node is only unknown or known. Each
+ * window is turned and flipped into the one of its eight forms with the
+ * smallest key, so 1-2-1 along a row and down a column share an entry.
+ * <p>
+ * The table starts from the patterns stored with the strategy, and learns
+ * the windows it has not seen by working them out, so a long run looks up
+ * nearly every window. The patterns learned can be written out in the same
+ * form, and read by another table.
+ */
+public class PatternTable
+{
+    /**
+     * The width and height of a window.
+     */
+    public static final int SIZE = 5;
+
+    /**
+     * The number of nodes in a window.
+     */
+    public static final int CELLS = SIZE * SIZE;
+
+    /**
+     * A window node that has not been probed or marked.
+     */
+    public static final int UNKNOWN = 0;
+
+    /**
+     * A window node that is a bomb, outside the map, or has no number to use.
+     */
+    public static final int KNOWN = 1;
+
+    /**
+     * A window node holding a number; the state is NUMBER plus the number
+     * less the bombs marked next to it.
+     */
+    public static final int NUMBER = 2;
+
+    private static final int MAGIC = 0x50474d50;    // "PGMP"
+    private static final int VERSION = 1;
+    private static final String RESOURCE = "patterns.bin";
+
+    // stop learning past this many patterns
+    private static final int LEARN_LIMIT = 1 << 20;
+
+    // a key is stored with this bit set, so 0 marks an empty slot
+    private static final long USED = 1L << 63;
+
+    // the window node at position j of form t is cell[t][j]
+    private static final int[][] cell = forms();
+
+    // the bits of window node i in the key of form t start at shift[i][t]
+    private static final int[][] shift = shifts();
+
+    private final PatternTable base;
+
+    // the key of a slot, and its value next to it in the same cache line
+    private long[] table = new long[2 << 10];
+    private int size;
+
+    // scratch for working out a window
+    private final int[] canonical = new int[CELLS];
+    private final long[] forms = new long[8];
+    private final int[] unknown = new int[CELLS];
+    private final int[] remaining = new int[CELLS];
+    private final int[] open = new int[CELLS];
+    private long involved;
+    private long anyBomb;
+    private long allBombs;
+    private boolean solved;
+
+    /**
+     * Creates a table that starts from the patterns stored with the
+     * strategy.
+     */
+    public PatternTable()
+    {
+        this(Standard.TABLE);
+    }
+
+    private PatternTable(PatternTable base)
+    {
+        this.base = base;
+    }
+
+    /**
+     * Finds the nodes of a window that are forced.
+     *
+     * @param window the state of each node, row by row; the state of a rim
+     *               node only matters for being UNKNOWN or not.
+     * @return the window nodes that are safe in the low 32 bits, and those
+     *         that are bombs in the high 32 bits, as bit masks over the
+     *         positions of the window.
+     */
+    public long lookup(int[] window)
+    {
+        Arrays.fill(forms, 0);
+        for (int i = 0; i < CELLS; i++)
+        {
+            long state = window[i];
+            if (!inner(i))
+                state = state == UNKNOWN ? 1 : 0;
+            if (state == 0)
+                continue;
+            for (int t = 0; t < forms.length; t++)
+                forms[t] |= state << shift[i][t];
+        }
+
+        long key = forms[0];
+        int form = 0;
+        for (int t = 1; t < forms.length; t++)
+        {
+            if (forms[t] < key)
+            {
+                key = forms[t];
+                form = t;
+            }
+        }
+
+        long value;
+        int s;
+        if (base != null && base.table[s = base.slot(key)] != 0)
+            value = base.table[s + 1];
+        else if (table[s = slot(key)] != 0)
+            value = table[s + 1];
+        else
+        {
+            for (int j = 0; j < CELLS; j++)
+                canonical[j] = window[cell[form][j]];
+            value = solve(canonical);
+            if (size < LEARN_LIMIT)
+                put(key, value);
+        }
+
+        if (value == 0 || form == 0)
+            return value;
+
+        // back from the form of the key to the window
+        long result = 0;
+        for (int j = 0; j < CELLS; j++)
+        {
+            if ((value & 1L << j) != 0)
+                result |= 1L << cell[form][j];
+            if ((value & 1L << 32 + j) != 0)
+                result |= 1L << 32 + cell[form][j];
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of patterns this table has learned.
+     */
+    public int learned()
+    {
+        return size;
+    }
+
+    /**
+     * Adds the patterns of a stream written by write to this table.
+     *
+     * @param in the stream.
+     * @throws IOException if the stream cannot be read or holds no patterns.
+     */
+    public void read(InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC)
+            throw new IOException("not a pattern table");
+        int version = data.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("unknown pattern table version " + version);
+
+        long n = varint(data);
+        long key = 0;
+        for (long i = 0; i < n; i++)
+        {
+            key += varint(data);
+            long packed = varint(data);
+            put(key, (packed & (1L << CELLS) - 1) | (packed >>> CELLS) << 32);
+        }
+    }
+
+    /**
+     * Writes the patterns of this table, and those it started from, in
+     * increasing order of key. Each key is written as the difference from
+     * the one before.
+     *
+     * @param out the stream.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void write(OutputStream out) throws IOException
+    {
+        long[] all = new long[size + (base != null ? base.size : 0)];
+        int n = 0;
+        for (PatternTable t = this; t != null; t = t.base)
+        {
+            for (int s = 0; s < t.table.length; s += 2)
+            {
+                if (t.table[s] != 0)
+                    all[n++] = t.table[s] & ~USED;
+            }
+        }
+        Arrays.sort(all, 0, n);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        varint(data, n);
+        long previous = 0;
+        for (int i = 0; i < n; i++)
+        {
+            long key = all[i];
+            int s = slot(key);
+            long value = table[s] != 0 ? table[s + 1] : base.table[base.slot(key) + 1];
+            varint(data, key - previous);
+            varint(data, (value & (1L << CELLS) - 1) | (value >>> 32) << CELLS);
+            previous = key;
+        }
+        data.flush();
+    }
+
+    /**
+     * Places the window nodes in the key of each form. A key holds the
+     * nodes in the order of the form, the inner nodes in four bits each
+     * and the rim nodes in one, the first node in the highest bits.
+     */
+    private static int[][] shifts()
+    {
+        int[][] shifts = new int[CELLS][8];
+        for (int t = 0; t < 8; t++)
+        {
+            int bits = 0;
+            for (int j = CELLS - 1; j >= 0; j--)
+            {
+                shifts[cell[t][j]][t] = bits;
+                bits += inner(j) ? 4 : 1;
+            }
+        }
+        return shifts;
+    }
+
+    private static boolean inner(int j)
+    {
+        int r = j / SIZE;
+        int c = j % SIZE;
+        return r > 0 && r < SIZE - 1 && c > 0 && c < SIZE - 1;
+    }
+
+    /**
+     * Lists the eight forms of a window, turned a quarter at a time and
+     * then flipped.
+     */
+    private static int[][] forms()
+    {
+        int[][] forms = new int[8][CELLS];
+        for (int t = 0; t < 8; t++)
+        {
+            for (int j = 0; j < CELLS; j++)
+            {
+                int r = j / SIZE;
+                int c = j % SIZE;
+                if (t >= 4)
+                    c = SIZE - 1 - c;
+                for (int turn = 0; turn < t % 4; turn++)
+                {
+                    int tmp = r;
+                    r = c;
+                    c = SIZE - 1 - tmp;
+                }
+                forms[t][j] = r * SIZE + c;
+            }
+        }
+        return forms;
+    }
+
+    /**
+     * Works out the forced nodes of a window by trying every bomb
+     * arrangement of the unknown nodes next to an inner number.
+     */
+    private long solve(int[] window)
+    {
+        int unknowns = 0;
+        involved = 0;
+        for (int j = 0; j < CELLS; j++)
+        {
+            remaining[j] = window[j] - NUMBER;
+            open[j] = 0;
+        }
+        for (int j = 0; j < CELLS; j++)
+        {
+            if (window[j] != UNKNOWN)
+                continue;
+            boolean constrained = false;
+            for (int i : around(j))
+            {
+                if (inner(i) && window[i] >= NUMBER)
+                {
+                    open[i]++;
+                    constrained = true;
+                }
+            }
+            if (constrained)
+            {
+                unknown[unknowns++] = j;
+                involved |= 1L << j;
+            }
+        }
+
+        anyBomb = 0;
+        allBombs = -1;
+        solved = false;
+        search(window, 0, unknowns, 0);
+        if (!solved)
+            return 0;
+
+        long safe = involved & ~anyBomb;
+        long bombs = involved & allBombs;
+        return safe | bombs << 32;
+    }
+
+    private void search(int[] window, int next, int unknowns, long bombs)
+    {
+        // stop once every node has been seen both safe and a bomb
+        if (solved && anyBomb == involved && allBombs == 0)
+            return;
+
+        if (next == unknowns)
+        {
+            for (int i = 0; i < CELLS; i++)
+            {
+                if (inner(i) && window[i] >= NUMBER && remaining[i] != 0)
+                    return;
+            }
+            solved = true;
+            anyBomb |= bombs;
+            allBombs &= bombs;
+            return;
+        }
+
+        int j = unknown[next];
+        int[] near = around(j);
+
+        // safe, unless a number needs every one of its open nodes
+        boolean safe = true;
+        for (int i : near)
+        {
+            if (inner(i) && window[i] >= NUMBER && remaining[i] == open[i])
+                safe = false;
+        }
+        for (int i : near)
+            open[i]--;
+        if (safe)
+            search(window, next + 1, unknowns, bombs);
+
+        boolean bomb = true;
+        for (int i : near)
+        {
+            if (inner(i) && window[i] >= NUMBER && remaining[i] == 0)
+                bomb = false;
+        }
+        if (bomb)
+        {
+            for (int i : near)
+                remaining[i]--;
+            search(window, next + 1, unknowns, bombs | 1L << j);
+            for (int i : near)
+                remaining[i]++;
+        }
+        for (int i : near)
+            open[i]++;
+    }
+
+    // the neighbors of each window node inside the window
+    private static final int[][] around = neighbors();
+
+    private static int[] around(int j)
+    {
+        return around[j];
+    }
+
+    private static int[][] neighbors()
+    {
+        int[][] neighbors = new int[CELLS][];
+        for (int j = 0; j < CELLS; j++)
+        {
+            int[] list = new int[8];
+            int n = 0;
+            for (int dr = -1; dr <= 1; dr++)
+            {
+                for (int dc = -1; dc <= 1; dc++)
+                {
+                    int r = j / SIZE + dr;
+                    int c = j % SIZE + dc;
+                    if ((dr != 0 || dc != 0) && r >= 0 && r < SIZE && c >= 0 && c < SIZE)
+                        list[n++] = r * SIZE + c;
+                }
+            }
+            neighbors[j] = Arrays.copyOf(list, n);
+        }
+        return neighbors;
+    }
+
+    private void put(long key, long value)
+    {
+        if (2 * (size + 1) > table.length / 2)
+        {
+            long[] old = table;
+            table = new long[old.length * 2];
+            for (int i = 0; i < old.length; i += 2)
+            {
+                if (old[i] != 0)
+                {
+                    int s = slot(old[i] & ~USED);
+                    table[s] = old[i];
+                    table[s + 1] = old[i + 1];
+                }
+            }
+        }
+
+        int s = slot(key);
+        if (table[s] == 0)
+            size++;
+        table[s] = key | USED;
+        table[s + 1] = value;
+    }
+
+    /**
+     * @return the index of the slot of a key, or of the empty slot where it
+     *         belongs.
+     */
+    private int slot(long key)
+    {
+        int mask = table.length / 2 - 1;
+        int s = (int) ((key * 0x9e3779b97f4a7c15L) >>> 40) & mask;
+        while (table[2 * s] != 0 && table[2 * s] != (key | USED))
+            s = (s + 1) & mask;
+        return 2 * s;
+    }
+
+    private static long varint(DataInputStream in) throws IOException
+    {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7f) << shift;
+            if (b < 0x80)
+                return v;
+        }
+        throw new IOException("bad varint in pattern table");
+    }
+
+    private static void varint(DataOutputStream out, long v) throws IOException
+    {
+        while ((v & ~0x7fL) != 0)
+        {
+            out.writeByte((int) (v | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    /**
+     * The patterns stored with the strategy, read once when first needed.
+     */
+    private static class Standard
+    {
+        static final PatternTable TABLE = load();
+
+        private static PatternTable load()
+        {
+            PatternTable table = new PatternTable((PatternTable) null);
+            InputStream in = PatternTable.class.getResourceAsStream(RESOURCE);
+            if (in == null)
+                return table;
+            try
+            {
+                table.read(in);
+                in.close();
+            }
+            catch (IOException e)
+            {
+                // play on, learning every pattern
+                table = new PatternTable((PatternTable) null);
+            }
+            return table;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package sweeper;
 
-import java.util.LinkedList;
-
 public class Point
 {
     public int x;
@@ -22,12 +20,14 @@ public class Point
         this.value = value;
     }
 
-    public boolean equals(Point p)
+    @Override
+    public boolean equals(Object o)
     {
-        if (this.x == p.x && this.y == p.y)
-            return true;
+        if (!(o instanceof Point))
+            return false;
 
-        return false;
+        Point p = (Point) o;
+        return this.x == p.x && this.y == p.y;
     }
 
     public boolean equals(int xCoord, int yCoord)
@@ -38,15 +38,10 @@ public class Point
         return false;
     }
 
-    public static Point findPointInLinkedList(LinkedList<Point> list, int xCoord, int yCoord)
+    @Override
+    public int hashCode()
     {
-        for (Point point: list)
-        {
-            if (point.equals(xCoord, yCoord))
-                return point;
-        }
-
-        return null;
+        return 31 * x + y;
     }
 
     @Override
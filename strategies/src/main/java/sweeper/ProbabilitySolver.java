@@ -0,0 +1,586 @@
+package sweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Computes the exact probability that each unprobed node next to a probed
+ * node holds a bomb.
+ * <p>
+ * Each probed node on the frontier gives a constraint: the number of bombs
+ * among its unprobed neighbors. The unprobed nodes that appear in some
+ * constraint are the variables. Variables that share no constraint, directly
+ * or through other variables, are independent, so the frontier is split into
+ * connected components. Every bomb arrangement that satisfies a component's
+ * constraints is found by backtracking, and counted by the number of bombs it
+ * uses. The components are then combined with the nodes away from the
+ * frontier: an arrangement using K bombs on the frontier leaves the rest of
+ * the bombs to be spread over the other unknown nodes, in C(U, M - K) ways.
+ * <p>
+ * The counts of a component depend only on its nodes and constraints, so they
+ * are remembered and reused while the component stays the same.
+ */
+public class ProbabilitySolver
+{
+    // give up on a component after this many steps of the search
+    private static final int SEARCH_LIMIT = 1 << 22;
+    private static final int CACHE_LIMIT = 4096;
+
+    // the nodes of constraint c are nodes[start[c]] up to nodes[start[c + 1]]
+    private int constraints;
+    private int[] start = new int[17];
+    private int[] target = new int[16];
+    private int[] nodes = new int[64];
+
+    // the unprobed nodes that appear in a constraint
+    private int variables;
+    private int[] variable = new int[64];
+    private IntIntMap variableOf = new IntIntMap();
+
+    private double[] probability = new double[64];
+    private int[] certain = new int[64];
+    private double otherProbability;
+
+    private final HashMap<String, Component> cache = new HashMap<String, Component>();
+    private double[] lnFactorial = new double[] { 0.0 };
+
+    /**
+     * The bomb arrangements of one component, counted by the number of
+     * bombs they use.
+     */
+    private static class Component
+    {
+        int[] cells;         // the nodes of the variables, in increasing order
+        double[] solutions;  // solutions[k] counts arrangements with k bombs
+        double[][] bombs;    // bombs[i][k] counts those with a bomb at cells[i]
+    }
+
+    /**
+     * Removes all constraints, ready for the next position.
+     */
+    public void clear()
+    {
+        constraints = 0;
+        variables = 0;
+        variableOf.clear();
+    }
+
+    /**
+     * Forgets the remembered components, ready for a new game.
+     */
+    public void reset()
+    {
+        clear();
+        cache.clear();
+    }
+
+    /**
+     * Adds a constraint.
+     *
+     * @param cells the unprobed nodes next to a probed node.
+     * @param n the number of nodes.
+     * @param bombs the number of those nodes that hold a bomb.
+     */
+    public void addConstraint(int[] cells, int n, int bombs)
+    {
+        if (constraints == target.length)
+        {
+            target = Arrays.copyOf(target, constraints * 2);
+            start = Arrays.copyOf(start, constraints * 2 + 1);
+        }
+        if (start[constraints] + n > nodes.length)
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, start[constraints] + n));
+
+        for (int i = 0; i < n; i++)
+        {
+            if (!variableOf.containsKey(cells[i]))
+            {
+                if (variables == variable.length)
+                    variable = Arrays.copyOf(variable, variables * 2);
+
+                variableOf.add(cells[i], variables);
+                variable[variables++] = cells[i];
+            }
+
+            nodes[start[constraints] + i] = cells[i];
+        }
+
+        target[constraints] = bombs;
+        constraints++;
+        start[constraints] = start[constraints - 1] + n;
+    }
+
+    /**
+     * Computes the probabilities.
+     *
+     * @param unknown the number of unprobed, unmarked nodes in the map.
+     * @param bombs the number of bombs not yet marked.
+     * @return true if the probabilities were computed, false if a component
+     *         was too large to search or the constraints cannot be met.
+     */
+    public boolean solve(int unknown, int bombs)
+    {
+        if (probability.length < variables)
+        {
+            probability = new double[variables];
+            certain = new int[variables];
+        }
+
+        ArrayList<Component> components = new ArrayList<Component>();
+        if (!findComponents(components))
+            return false;
+
+        int others = unknown - variables;
+        int maxBombs = 0;
+        for (Component c: components)
+            maxBombs += c.solutions.length - 1;
+
+        // weight[K]: the ways to place the bombs left by K frontier bombs
+        double[] weight = new double[maxBombs + 1];
+        growFactorials(others);
+        double maxLn = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k <= maxBombs; k++)
+        {
+            if (bombs - k >= 0 && bombs - k <= others)
+                maxLn = Math.max(maxLn, lnChoose(others, bombs - k));
+        }
+        if (maxLn == Double.NEGATIVE_INFINITY)
+            return false;
+        for (int k = 0; k <= maxBombs; k++)
+        {
+            if (bombs - k >= 0 && bombs - k <= others)
+                weight[k] = Math.exp(lnChoose(others, bombs - k) - maxLn);
+        }
+
+        double[] all = convolve(components, null);
+        double total = 0.0;
+        double otherBombs = 0.0;
+        for (int k = 0; k < all.length; k++)
+        {
+            total += all[k] * weight[k];
+            otherBombs += all[k] * weight[k] * (bombs - k);
+        }
+        if (total <= 0.0)
+            return false;
+
+        otherProbability = others > 0 ? otherBombs / others / total : 1.0;
+
+        for (Component c: components)
+        {
+            // the weight of each bomb count of c, given all other components
+            double[] rest = convolve(components, c);
+            double[] given = new double[c.solutions.length];
+            for (int k = 0; k < given.length; k++)
+            {
+                for (int j = 0; j < rest.length && j + k < weight.length; j++)
+                    given[k] += rest[j] * weight[j + k];
+            }
+
+            double cTotal = 0.0;
+            for (int k = 0; k < given.length; k++)
+                cTotal += c.solutions[k] * given[k];
+
+            for (int i = 0; i < c.cells.length; i++)
+            {
+                int v = variableOf.get(c.cells[i]);
+                double p = 0.0;
+                boolean safe = true;
+                boolean bomb = true;
+
+                for (int k = 0; k < given.length; k++)
+                {
+                    if (given[k] <= 0.0 || c.solutions[k] <= 0.0)
+                        continue;
+
+                    p += c.bombs[i][k] * given[k];
+                    safe &= c.bombs[i][k] == 0.0;
+                    bomb &= c.bombs[i][k] == c.solutions[k];
+                }
+
+                probability[v] = p / cTotal;
+                certain[v] = safe ? 0 : bomb ? 1 : -1;
+            }
+        }
+
+        return true;
+    }
+
+    public int variables()
+    {
+        return variables;
+    }
+
+    /**
+     * @param i a variable less than variables().
+     * @return the node of the variable.
+     */
+    public int node(int i)
+    {
+        return variable[i];
+    }
+
+    /**
+     * @param i a variable less than variables().
+     * @return the probability that the node of the variable holds a bomb.
+     */
+    public double probability(int i)
+    {
+        return probability[i];
+    }
+
+    /**
+     * @param i a variable less than variables().
+     * @return 0 if the node is certainly safe, 1 if it certainly holds a
+     *         bomb, and -1 otherwise.
+     */
+    public int certain(int i)
+    {
+        return certain[i];
+    }
+
+    /**
+     * @return the probability that an unknown node in no constraint holds a bomb.
+     */
+    public double otherProbability()
+    {
+        return otherProbability;
+    }
+
+    /**
+     * Splits the variables into components and finds the arrangements of each.
+     */
+    private boolean findComponents(ArrayList<Component> components)
+    {
+        int[] parent = new int[variables];
+        for (int v = 0; v < variables; v++)
+            parent[v] = v;
+
+        for (int c = 0; c < constraints; c++)
+        {
+            for (int i = start[c] + 1; i < start[c + 1]; i++)
+            {
+                int a = find(parent, variableOf.get(nodes[start[c]]));
+                int b = find(parent, variableOf.get(nodes[i]));
+                parent[a] = b;
+            }
+        }
+
+        // group the variables and constraints by the root of their component
+        IntIntMap componentOf = new IntIntMap();
+        ArrayList<int[]> cellLists = new ArrayList<int[]>();
+        int[] cellCount = new int[variables];
+        for (int v = 0; v < variables; v++)
+        {
+            int root = find(parent, v);
+            if (!componentOf.containsKey(root))
+                componentOf.add(root, componentOf.size());
+            cellCount[componentOf.get(root)]++;
+        }
+        int[] filled = new int[componentOf.size()];
+        for (int i = 0; i < componentOf.size(); i++)
+            cellLists.add(new int[cellCount[i]]);
+        for (int v = 0; v < variables; v++)
+        {
+            int i = componentOf.get(find(parent, v));
+            cellLists.get(i)[filled[i]++] = variable[v];
+        }
+
+        ArrayList<ArrayList<Integer>> constraintLists = new ArrayList<ArrayList<Integer>>();
+        for (int i = 0; i < componentOf.size(); i++)
+            constraintLists.add(new ArrayList<Integer>());
+        for (int c = 0; c < constraints; c++)
+        {
+            if (start[c + 1] == start[c])
+            {
+                if (target[c] != 0)
+                    return false;
+                continue;
+            }
+            int i = componentOf.get(find(parent, variableOf.get(nodes[start[c]])));
+            constraintLists.get(i).add(c);
+        }
+
+        for (int i = 0; i < cellLists.size(); i++)
+        {
+            int[] cells = cellLists.get(i);
+            Arrays.sort(cells);
+
+            String key = signature(cells, constraintLists.get(i));
+            Component component = cache.get(key);
+            if (component == null)
+            {
+                component = enumerate(cells, constraintLists.get(i));
+                if (component == null)
+                    return false;
+
+                if (cache.size() >= CACHE_LIMIT)
+                    cache.clear();
+                cache.put(key, component);
+            }
+            components.add(component);
+        }
+
+        return true;
+    }
+
+    private static int find(int[] parent, int v)
+    {
+        while (parent[v] != v)
+        {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Describes a component by its nodes and its constraints, so that the
+     * same component is recognized in a later position.
+     */
+    private String signature(int[] cells, ArrayList<Integer> constraintList)
+    {
+        String[] rows = new String[constraintList.size()];
+        for (int r = 0; r < rows.length; r++)
+        {
+            int c = constraintList.get(r);
+            int[] row = Arrays.copyOfRange(nodes, start[c], start[c + 1]);
+            Arrays.sort(row);
+            rows[r] = Arrays.toString(row) + "=" + target[c];
+        }
+        Arrays.sort(rows);
+
+        StringBuilder key = new StringBuilder(Arrays.toString(cells));
+        for (String row: rows)
+            key.append(row);
+        return key.toString();
+    }
+
+    /**
+     * Finds and counts every arrangement of bombs on a component that
+     * satisfies its constraints.
+     *
+     * @return the counts, or null if the search is too large or no
+     *         arrangement exists.
+     */
+    private Component enumerate(int[] cells, ArrayList<Integer> constraintList)
+    {
+        int n = cells.length;
+        int m = constraintList.size();
+
+        // local numbering of the variables and constraints of the component
+        int[][] constraintVars = new int[m][];
+        int[] need = new int[m];
+        int[] open = new int[m];
+        int[] have = new int[m];
+        int[] varConstraintCount = new int[n];
+        for (int c = 0; c < m; c++)
+        {
+            int g = constraintList.get(c);
+            constraintVars[c] = new int[start[g + 1] - start[g]];
+            for (int i = start[g]; i < start[g + 1]; i++)
+            {
+                int v = Arrays.binarySearch(cells, nodes[i]);
+                constraintVars[c][i - start[g]] = v;
+                varConstraintCount[v]++;
+            }
+            need[c] = target[g];
+            open[c] = constraintVars[c].length;
+        }
+        int[][] varConstraints = new int[n][];
+        for (int v = 0; v < n; v++)
+            varConstraints[v] = new int[varConstraintCount[v]];
+        int[] filled = new int[n];
+        for (int c = 0; c < m; c++)
+        {
+            for (int v: constraintVars[c])
+                varConstraints[v][filled[v]++] = c;
+        }
+
+        // visit the variables breadth first, so constraints close early
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int ordered = 0;
+        for (int s = 0; s < n; s++)
+        {
+            if (seen[s])
+                continue;
+            seen[s] = true;
+            order[ordered++] = s;
+            for (int q = ordered - 1; q < ordered; q++)
+            {
+                for (int c: varConstraints[order[q]])
+                {
+                    for (int v: constraintVars[c])
+                    {
+                        if (!seen[v])
+                        {
+                            seen[v] = true;
+                            order[ordered++] = v;
+                        }
+                    }
+                }
+            }
+        }
+
+        Search search = new Search(n, order, varConstraints, need, open, have);
+        if (!search.run())
+            return null;
+
+        // scale the counts so the largest is 1, which keeps products in range
+        double max = 0.0;
+        for (double count: search.solutions)
+            max = Math.max(max, count);
+        if (max == 0.0)
+            return null;
+
+        Component component = new Component();
+        component.cells = cells;
+        component.solutions = search.solutions;
+        component.bombs = search.bombs;
+        for (int k = 0; k <= n; k++)
+        {
+            component.solutions[k] /= max;
+            for (int v = 0; v < n; v++)
+                component.bombs[v][k] /= max;
+        }
+        return component;
+    }
+
+    /**
+     * A backtracking search over the variables of one component.
+     */
+    private static class Search
+    {
+        final int n;
+        final int[] order;
+        final int[][] varConstraints;
+        final int[] need;
+        final int[] open;
+        final int[] have;
+        final boolean[] bomb;
+        final double[] solutions;
+        final double[][] bombs;
+        int steps;
+
+        Search(int n, int[] order, int[][] varConstraints, int[] need, int[] open, int[] have)
+        {
+            this.n = n;
+            this.order = order;
+            this.varConstraints = varConstraints;
+            this.need = need;
+            this.open = open;
+            this.have = have;
+            bomb = new boolean[n];
+            solutions = new double[n + 1];
+            bombs = new double[n][n + 1];
+        }
+
+        boolean run()
+        {
+            return search(0, 0);
+        }
+
+        private boolean search(int depth, int k)
+        {
+            if (++steps > SEARCH_LIMIT)
+                return false;
+
+            if (depth == n)
+            {
+                solutions[k] += 1.0;
+                for (int v = 0; v < n; v++)
+                {
+                    if (bomb[v])
+                        bombs[v][k] += 1.0;
+                }
+                return true;
+            }
+
+            int v = order[depth];
+            for (int value = 0; value < 2; value++)
+            {
+                if (!fits(v, value))
+                    continue;
+
+                set(v, value, 1);
+                boolean done = search(depth + 1, k + value);
+                set(v, value, -1);
+
+                if (!done)
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Can variable v take the value without breaking a constraint?
+         */
+        private boolean fits(int v, int value)
+        {
+            for (int c: varConstraints[v])
+            {
+                int h = have[c] + value;
+                if (h > need[c] || h + open[c] - 1 < need[c])
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Assigns (direction 1) or unassigns (direction -1) a value to v.
+         */
+        private void set(int v, int value, int direction)
+        {
+            bomb[v] = direction > 0 && value == 1;
+            for (int c: varConstraints[v])
+            {
+                have[c] += value * direction;
+                open[c] -= direction;
+            }
+        }
+    }
+
+    /**
+     * Convolves the bomb counts of all components except one.
+     *
+     * @param except the component to leave out, or null.
+     * @return counts by the total number of bombs.
+     */
+    private static double[] convolve(ArrayList<Component> components, Component except)
+    {
+        double[] result = { 1.0 };
+        for (Component c: components)
+        {
+            if (c == except)
+                continue;
+
+            double[] next = new double[result.length + c.solutions.length - 1];
+            for (int i = 0; i < result.length; i++)
+            {
+                if (result[i] == 0.0)
+                    continue;
+                for (int j = 0; j < c.solutions.length; j++)
+                    next[i + j] += result[i] * c.solutions[j];
+            }
+            result = next;
+        }
+        return result;
+    }
+
+    private void growFactorials(int n)
+    {
+        if (n < lnFactorial.length)
+            return;
+
+        int old = lnFactorial.length;
+        lnFactorial = Arrays.copyOf(lnFactorial, n + 1);
+        for (int i = old; i <= n; i++)
+            lnFactorial[i] = lnFactorial[i - 1] + Math.log(i);
+    }
+
+    private double lnChoose(int n, int k)
+    {
+        return lnFactorial[n] - lnFactorial[k] - lnFactorial[n - k];
+    }
+}
@@ -0,0 +1,962 @@
+package sweeper;
+
+import map.Map;
+import map.Strategy;
+import map.Trace;
+
+/**
+ * A strategy that probes cells proven safe, marks cells proven to
+ * hold a mine and guesses the least dangerous cell when stuck.
+ * <p>
+ * Points use x for the row and y for the column, so the coordinates
+ * are swapped whenever the map is probed or marked.
+ */
+public class SweeperAlgo implements Strategy
+{
+    // Nodes are kept by their index in a grid with a border of sentinel
+    // nodes, which are marked probed so they are never probed or guessed.
+    private Neighborhood nb;
+
+    private CellQueue safeFrontier;
+    private boolean[] probed;
+    private int resolved;   // number of probed and marked nodes
+    private int[] values;
+
+    private CellSet checkFrontier;
+
+    // nodes whose neighbors changed since findSafeBombs last looked at them
+    private CellQueue dirty;
+
+    // marked and unprobed neighbors of each node, kept up to date by resolve
+    private int[] knownBombs;
+    private int[] unknownNeighbors;
+
+    private boolean[] bombArr;
+    private CellSet excludeList;
+
+    // the wave of safe nodes being probed, and their indices in the map
+    private int[] waveNodes;
+    private int[] waveCells;
+    private int[] waveResults;
+
+    // the nodes opened by the map around a node with a value of 0
+    private int[] openCells;
+
+    // exact bomb probabilities, used before falling back to sampling
+    private ProbabilitySolver solver;
+    private MineSampler sampler;
+
+    // deductions from combined constraints, and the nodes probed or marked since
+    private LinearDeducer deducer;
+    private CellSet touched;
+    private CellSet near;
+
+    // deductions from the window around a node, and the nodes probed or marked since
+    private PatternTable patterns;
+    private CellSet unmatched;
+    private CellSet centers;
+    private int[] window;
+
+    // temp stuff
+    private boolean madeChanges;
+
+    public SweeperAlgo()
+    {
+        solver = new ProbabilitySolver();
+        sampler = new MineSampler();
+        deducer = new LinearDeducer();
+        patterns = new PatternTable();
+        window = new int[PatternTable.CELLS];
+        madeChanges = true;
+    }
+
+    /**
+     * This function is called by the minesweeper(PGMS) class and
+     * and calls all the logic for sweeping the board.
+     *
+     * @param m Stores all the information needed to interact with the map
+     */
+    @Override
+    public void play(Map m)
+    {
+        if (Trace.on(Trace.INFO))
+            gameInfo(m);
+
+        // a strategy instance may play many games, so start from scratch
+        madeChanges = true;
+        nb = new Neighborhood(m.rows(), m.columns());
+        solver.reset();
+        sampler.reset();
+
+        int size = nb.size();
+        safeFrontier = new CellQueue(size);
+        checkFrontier = new CellSet(size);
+        dirty = new CellQueue(size);
+        excludeList = new CellSet(size);
+        touched = new CellSet(size);
+        near = new CellSet(size);
+        deducer.reset(size);
+        unmatched = new CellSet(size);
+        centers = new CellSet(size);
+        probed = new boolean[size];
+        resolved = 0;
+        values = new int[size];
+        bombArr = new boolean[size];
+        waveNodes = new int[nb.cells()];
+        waveCells = new int[nb.cells()];
+        waveResults = new int[nb.cells()];
+        openCells = new int[nb.cells()];
+        knownBombs = new int[size];
+        unknownNeighbors = new int[size];
+
+        for (int node = 0; node < size; node++)
+            probed[node] = nb.border(node);
+
+        for (int node = 0; node < size; node++)
+        {
+            if (probed[node])
+                continue;
+
+            for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+            {
+                if (!probed[node + nb.offset(k)])
+                    unknownNeighbors[node]++;
+            }
+        }
+
+        // first pick
+        Point p = new Point(m.rows() / 2, m.columns() / 2);
+
+        int response = m.probe(p.y, p.x);
+        if (Map.BOOM == response)
+            return;
+        try
+        {
+            resolve(index(p.x, p.y), false);
+            values[index(p.x, p.y)] = response;
+            p.value = response;
+
+            // check if sweeper needs to randomly select a new block
+            if (p.value != 0)
+            {
+                if (Trace.on(Trace.INFO))
+                    Trace.println("Doing random selection, first node: " + p.x + "," + p.y);
+
+                int totalMapNodes = nb.cells();
+                checkForBetterStartingPos(totalMapNodes, m.mines_minus_marks(), p,m);
+
+                if (Trace.on(Trace.INFO))
+                    Trace.println("Random selection done.");
+            }
+            else
+                openRegion(index(p.x, p.y), m);
+
+
+            while (!checkForWin())
+            {
+                if (m.mines_minus_marks() == 0)
+                {
+                    probeAllUnprobedNodes(m);
+                    break;
+                }
+                else
+                {
+                    madeChanges = false;
+                    probeSafeFrontier(m);
+                    findSafeBombs(m);
+
+                    if (checkForWin())
+                        break;
+
+                    if (!madeChanges)
+                        matchPatterns(m);
+
+                    if (!madeChanges)
+                        deduceLinear(m);
+
+                    if (!madeChanges)
+                        calculateOptimalNode(m);
+                }
+            }
+        }
+        catch (BombException e)
+        {
+            if (Trace.on(Trace.INFO))
+                Trace.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Gives the patterns this strategy has looked up, including those it
+     * learned, so they can be kept for later runs.
+     *
+     * @return the pattern table.
+     */
+    public PatternTable patterns()
+    {
+        return patterns;
+    }
+
+    /**
+     * A function used for debugging. Has no effect on any logic.
+     * *
+     * @param m Stores all the information needed to interact with the map.
+     */
+    private void gameInfo(Map m)
+    {
+        Trace.println("Game info: size " + m.rows() + " * " +  m.columns()
+                + ", number of bombs " + m.mines_minus_marks());
+    }
+
+
+    /**
+     * Records that a node has been probed or marked, and queues the node
+     * and its neighbors to be looked at again by findSafeBombs.
+     *
+     * @param node a node of the map.
+     * @param bomb true if the node was marked as a bomb.
+     */
+    private void resolve(int node, boolean bomb)
+    {
+        if (probed[node])
+            return;
+
+        probed[node] = true;
+        resolved++;
+        bombArr[node] = bomb;
+        touched.add(node);
+        unmatched.add(node);
+        dirty.add(node);
+
+        // the counts of border nodes are never read, so they need no check
+        for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+        {
+            int neighbor = node + nb.offset(k);
+            unknownNeighbors[neighbor]--;
+            if (bomb)
+                knownBombs[neighbor]++;
+            dirty.add(neighbor);
+        }
+    }
+
+    private boolean checkForWin()
+    {
+        return resolved == nb.cells();
+    }
+
+    private void probeAllUnprobedNodes(Map m)
+    {
+        int n = 0;
+
+        for (int node = 0; node < probed.length; node++)
+        {
+            if (!probed[node])
+            {
+                waveCells[n++] = nb.cell(node);
+                resolve(node, false);
+            }
+        }
+
+        m.probe(waveCells, n, waveResults);
+    }
+
+    /**
+     * Probes all nodes that are stored in the safeFrontier and adds the
+     * probed node to an appropriate frontier.
+     * If a node has value of 0 then the map opens the region around it.
+     * If a node has a value greater then 0 the it is added to checkFrontier.
+     * The search loops rather than recurses, as on a large board with few
+     * zeros it can take more probes than the stack has frames.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     * @throws BombException if a bomb is probed.
+     */
+    public void probeSafeFrontier(Map m) throws BombException
+    {
+        while (!safeFrontier.isEmpty())
+        {
+            // probe the whole wave of safe nodes in a single call
+            int n = 0;
+
+            while (!safeFrontier.isEmpty())
+            {
+                int node = safeFrontier.removeFirst();
+
+                // a node can be found safe after it was probed
+                if (probed[node])
+                    continue;
+
+                resolve(node, false);
+                waveNodes[n] = node;
+                waveCells[n] = nb.cell(node);
+                n++;
+            }
+
+            m.probe(waveCells, n, waveResults);
+
+            for (int i = 0; i < n; i++)
+            {
+                if (waveResults[i] == Map.BOOM)
+                    throw new BombException("Probed a bomb in safe frontier. Check your code!");
+
+                int node = waveNodes[i];
+                values[node] = waveResults[i];
+
+                if (values[node] == 0)
+                    openRegion(node, m);
+                else
+                    checkFrontier.add(node);
+            }
+        }
+    }
+
+    /**
+     * If the first node probed does not contain a value of 0, then
+     * we probe a new node until we find one with a value of 0.
+     * If a node has value of 0 then the map opens the region around it.
+     * If a node has a value greater then 0 the it is added to checkFrontier.
+     * The search loops rather than recurses, as on a large board with few
+     * zeros it can take more probes than the stack has frames.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     * @throws BombException if a bomb is probed.
+     */
+    private void checkForBetterStartingPos(int uncheckedNodes, int unknownBombsInMap ,Point p, Map m) throws BombException
+    {
+        while (true)
+        {
+            int response = m.probe(p.y, p.x);
+
+            if (response == Map.BOOM)
+                throw new BombException("Probed a bomb");
+
+            p.value = response;
+            resolve(index(p.x, p.y), false);
+            values[index(p.x, p.y)] = response;
+            if (response == 0)
+            {
+                openRegion(index(p.x, p.y), m);
+                return;
+            }
+
+            unknownBombsInMap -= p.value;
+            uncheckedNodes -= 9;
+
+            double chanceOfAdjacentBomb = (double)response / 8.0;
+            double chanceRandomProbeBomb = (double)unknownBombsInMap / (double)uncheckedNodes;
+
+            if (Trace.on(Trace.DEBUG))
+            {
+                Trace.println("Chance of adjacent bomb: " + (double)response + " / 8 = " + chanceOfAdjacentBomb);
+                Trace.println("Chance of random bomb: " + (double)unknownBombsInMap + " / " + (double)uncheckedNodes + " = " + chanceRandomProbeBomb);
+            }
+
+            if (chanceOfAdjacentBomb >= chanceRandomProbeBomb)
+            {
+                checkFrontier.add(index(p.x, p.y));
+
+                addNodesToExcludeList(p);
+                p = makeRandomProbe(m);
+                if (Trace.on(Trace.INFO))
+                    Trace.println("Random node: " + p.x + "," + p.y);
+            }
+            else
+            {
+                p = probeRandomAdjacent(p.x, p.y, m);
+                if (Trace.on(Trace.INFO))
+                    Trace.println("Adjacent node: " + p.x + "," + p.y);
+            }
+        }
+    }
+
+    /**
+     * Adds all points adjacent to p to a set and they will not be randomly probed.
+     *
+     * @param p a point that is adjacent to a bomb.
+     */
+    private void addNodesToExcludeList(Point p)
+    {
+        int node = index(p.x, p.y);
+
+        for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+            excludeList.add(node + nb.offset(k));
+    }
+
+    /**
+     * Looks at a node that is touching one or more bombs. Using the number of of unprobed nodes adjacent to
+     * that node and the number of marked bombs adjacent to that node, it can determine if the unprobed nodes
+     * are 100% safe to probe or not.
+     * Only the nodes of the checkFrontier whose neighbors changed since the last look are checked.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     */
+    private void findSafeBombs(Map m)
+    {
+        int[] possibleBomb = new int[Neighborhood.NEIGHBORS];
+        int[] markCells = new int[Neighborhood.NEIGHBORS];
+
+        while (!dirty.isEmpty())
+        {
+            int checkNode = dirty.removeFirst();
+            if (!checkFrontier.contains(checkNode))
+                continue;
+
+            int bombsFound = knownBombs[checkNode];
+
+            if (values[checkNode] == bombsFound)
+            {
+                addAllAdjacentToSafeFrontier(checkNode);
+                checkFrontier.remove(checkNode);
+                deducer.removeConstraint(checkNode);
+
+                // Temp stuff
+                madeChanges = true;
+                continue;
+            }
+
+            if (unknownNeighbors[checkNode] == values[checkNode] - bombsFound)
+            {
+                int possibleBombs = adjacentUnprobed(checkNode, possibleBomb);
+
+                StringBuilder trace = Trace.on(Trace.INFO)
+                        ? new StringBuilder("Bomb at coords " + point(checkNode).toString() + " marked bomb/s: ")
+                        : null;
+
+                for (int b = 0; b < possibleBombs; b++)
+                {
+                    int markBomb = possibleBomb[b];
+
+                    // marking queues the node again, and then it is safe to remove
+                    resolve(markBomb, true);
+                    markCells[b] = nb.cell(markBomb);
+
+                    if (trace != null)
+                        trace.append(point(markBomb).toString());
+                }
+                m.mark(markCells, possibleBombs, null);
+
+                if (trace != null)
+                    Trace.println(trace.toString());
+                // Temp stuff
+                madeChanges = true;
+            }
+        }
+    }
+
+    /**
+     * Handles adding all nodes adjacent to a given node to the safeFrontier.
+     *
+     * @param node a node in the map
+     */
+    private void addAllAdjacentToSafeFrontier(int node)
+    {
+        for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+        {
+            int neighbor = node + nb.offset(k);
+
+            if (!probed[neighbor])
+                safeFrontier.add(neighbor);
+        }
+    }
+
+    /**
+     * Collects the unprobed neighbors of a node.
+     *
+     * @param node a node in the map.
+     * @param adjacent receives the neighbors, it needs room for NEIGHBORS nodes.
+     * @return the number of neighbors collected.
+     */
+    private int adjacentUnprobed(int node, int[] adjacent)
+    {
+        int n = 0;
+
+        for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+        {
+            int neighbor = node + nb.offset(k);
+
+            if (!probed[neighbor])
+                adjacent[n++] = neighbor;
+        }
+
+        return n;
+    }
+
+    /**
+     * Lets the map open the region around a node with a value of 0. Every
+     * opened node with a value greater than 0 is added to checkFrontier.
+     *
+     * @param node a probed node with a value of 0.
+     * @param m Stores all the information needed to interact with the map.
+     */
+    private void openRegion(int node, Map m)
+    {
+        int n = m.open(nb.column(node), nb.row(node), openCells);
+
+        for (int i = 0; i < n; i++)
+        {
+            int opened = nb.nodeOf(openCells[i]);
+
+            resolve(opened, false);
+            values[opened] = m.look(nb.column(opened), nb.row(opened));
+            if (values[opened] > 0)
+                checkFrontier.add(opened);
+        }
+    }
+
+    /**
+     * Combines the constraints of the checkFrontier by Gaussian elimination
+     * to find nodes that no single node proves safe or a bomb. The deducer
+     * keeps the constraints between passes, so only those next to a node
+     * probed or marked since the last pass are set again, and only groups
+     * of constraints within two steps of such a node are reduced again.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     */
+    private void deduceLinear(Map m)
+    {
+        if (touched.isEmpty())
+            return;
+
+        int[] adjacent = new int[Neighborhood.NEIGHBORS];
+
+        // nodes next to a node that changed
+        for (int i = 0; i < touched.size(); i++)
+        {
+            int node = touched.get(i);
+
+            near.add(node);
+            for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+                near.add(node + nb.offset(k));
+        }
+        touched.clear();
+
+        for (int i = 0; i < near.size(); i++)
+        {
+            int node = near.get(i);
+            if (nb.border(node))
+                continue;
+
+            if (checkFrontier.contains(node))
+            {
+                int n = adjacentUnprobed(node, adjacent);
+                deducer.setConstraint(node, adjacent, n, values[node] - knownBombs[node]);
+            }
+            else
+                deducer.removeConstraint(node);
+
+            // a group changes when a node within two steps of it changes
+            for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+                deducer.touch(node + nb.offset(k));
+        }
+        near.clear();
+
+        int deductions = deducer.solve();
+
+        for (int i = 0; i < deductions; i++)
+        {
+            int node = deducer.node(i);
+
+            if (deducer.bomb(i))
+            {
+                resolve(node, true);
+                m.mark(nb.column(node), nb.row(node));
+            }
+            else
+                safeFrontier.add(node);
+        }
+
+        if (deductions > 0)
+            madeChanges = true;
+    }
+
+    /**
+     * Looks up the window around each node of the checkFrontier that is
+     * within two steps of a node probed or marked since the last look, and
+     * probes or marks the nodes the window forces.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     */
+    private void matchPatterns(Map m)
+    {
+        if (unmatched.isEmpty())
+            return;
+
+        int half = PatternTable.SIZE / 2;
+        centers.clear();
+
+        for (int i = 0; i < unmatched.size(); i++)
+        {
+            int node = unmatched.get(i);
+
+            for (int j = 0; j < PatternTable.CELLS; j++)
+            {
+                int center = windowNode(node, j / PatternTable.SIZE - half, j % PatternTable.SIZE - half);
+                if (center >= 0 && checkFrontier.contains(center))
+                    centers.add(center);
+            }
+        }
+        unmatched.clear();
+
+        int[] markCells = new int[PatternTable.CELLS];
+
+        for (int i = 0; i < centers.size(); i++)
+        {
+            int center = centers.get(i);
+
+            for (int j = 0; j < PatternTable.CELLS; j++)
+            {
+                int node = windowNode(center, j / PatternTable.SIZE - half, j % PatternTable.SIZE - half);
+
+                if (node < 0 || bombArr[node] || nb.border(node))
+                    window[j] = PatternTable.KNOWN;
+                else if (!probed[node])
+                    window[j] = PatternTable.UNKNOWN;
+                else
+                    window[j] = PatternTable.NUMBER + values[node] - knownBombs[node];
+            }
+
+            long forced = patterns.lookup(window);
+            if (forced == 0)
+                continue;
+
+            int marks = 0;
+
+            for (int j = 0; j < PatternTable.CELLS; j++)
+            {
+                int node = windowNode(center, j / PatternTable.SIZE - half, j % PatternTable.SIZE - half);
+
+                if (node < 0 || probed[node])
+                    continue;
+
+                if ((forced & 1L << j) != 0)
+                    safeFrontier.add(node);
+                else if ((forced & 1L << 32 + j) != 0)
+                {
+                    resolve(node, true);
+                    markCells[marks++] = nb.cell(node);
+                }
+            }
+
+            if (marks > 0)
+                m.mark(markCells, marks, null);
+
+            if (Trace.on(Trace.INFO))
+                Trace.println("Window around " + point(center).toString() + " forced "
+                        + Long.bitCount(forced) + " node/s.");
+
+            madeChanges = true;
+        }
+    }
+
+    /**
+     * Gives the node a number of rows and columns away from another.
+     *
+     * @param node a node of the map.
+     * @param dx rows to move.
+     * @param dy columns to move.
+     * @return the node, or -1 if it is outside the map and its border.
+     */
+    private int windowNode(int node, int dx, int dy)
+    {
+        int x = nb.row(node) + dx;
+        int y = nb.column(node) + dy;
+
+        if (x < -1 || x > nb.rows() || y < -1 || y > nb.columns())
+            return -1;
+
+        return nb.node(x, y);
+    }
+
+    /**
+     * Chooses the node to probe when no node is known to be safe. The exact
+     * bomb probabilities are used when they can be computed, and otherwise
+     * they are estimated by sampling bomb arrangements.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     */
+    private void calculateOptimalNode(Map m)
+    {
+        if (Trace.on(Trace.DEBUG))
+            Trace.println("Calculating optimal node to probe.");
+
+        if (calculateExactProbabilities(m))
+            return;
+
+        if (sampleProbabilities(m))
+            return;
+
+        Point guess = makeRandomProbe(m);
+        safeFrontier.add(index(guess.x, guess.y));
+        if (Trace.on(Trace.INFO))
+            Trace.println("Made random guess.");
+    }
+
+    /**
+     * Computes the exact bomb probability of every unprobed node next to the
+     * checkFrontier. Nodes that are certainly safe are added to the
+     * safeFrontier and nodes that certainly hold a bomb are marked. If there
+     * are none, the node least likely to hold a bomb is added to the
+     * safeFrontier.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     * @return false if the probabilities could not be computed.
+     */
+    private boolean calculateExactProbabilities(Map m)
+    {
+        int[] adjacent = new int[Neighborhood.NEIGHBORS];
+        int unknown = nb.cells() - resolved;
+
+        solver.clear();
+
+        for (int i = 0; i < checkFrontier.size(); i++)
+        {
+            int node = checkFrontier.get(i);
+            int n = adjacentUnprobed(node, adjacent);
+
+            solver.addConstraint(adjacent, n, values[node] - knownBombs[node]);
+        }
+
+        if (!solver.solve(unknown, m.mines_minus_marks()))
+            return false;
+
+        boolean foundCertain = false;
+        int bestNode = -1;
+        double lowestChance = 2.0;
+
+        for (int i = 0; i < solver.variables(); i++)
+        {
+            int node = solver.node(i);
+
+            if (solver.certain(i) == 0)
+            {
+                safeFrontier.add(node);
+                foundCertain = true;
+            }
+            else if (solver.certain(i) == 1)
+            {
+                resolve(node, true);
+                m.mark(nb.column(node), nb.row(node));
+                if (Trace.on(Trace.INFO))
+                    Trace.println("Bomb at coords " + point(node).toString() + " marked by probability.");
+                foundCertain = true;
+            }
+            else if (solver.probability(i) < lowestChance)
+            {
+                bestNode = node;
+                lowestChance = solver.probability(i);
+            }
+        }
+
+        if (foundCertain)
+        {
+            madeChanges = true;
+            return true;
+        }
+
+        // a node away from the frontier may be the safer guess
+        if (unknown > solver.variables() && solver.otherProbability() < lowestChance)
+        {
+            int node = pickOffFrontier(m);
+            if (node != -1)
+            {
+                bestNode = node;
+                lowestChance = solver.otherProbability();
+            }
+        }
+
+        if (bestNode == -1)
+            return false;
+
+        safeFrontier.add(bestNode);
+        if (Trace.on(Trace.INFO))
+            Trace.println("Chose " + point(bestNode).toString()
+                    + " as best node with bomb chance " + lowestChance + ".");
+
+        return true;
+    }
+
+    /**
+     * Estimates the bomb probability of every unprobed node next to the
+     * checkFrontier by sampling, and adds the node least likely to hold a
+     * bomb to the safeFrontier. Unlike the exact probabilities, the
+     * estimates never prove a node safe or a bomb.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     * @return false if no bomb arrangement meeting the constraints was found.
+     */
+    private boolean sampleProbabilities(Map m)
+    {
+        int[] adjacent = new int[Neighborhood.NEIGHBORS];
+        int unknown = nb.cells() - resolved;
+
+        sampler.clear();
+
+        for (int i = 0; i < checkFrontier.size(); i++)
+        {
+            int node = checkFrontier.get(i);
+            int n = adjacentUnprobed(node, adjacent);
+
+            sampler.addConstraint(adjacent, n, values[node] - knownBombs[node]);
+        }
+
+        // the chains take their random numbers from the map, so games replay
+        long seed = (long) m.pick(1 << 30) << 30 ^ m.pick(1 << 30);
+        if (!sampler.solve(unknown, m.mines_minus_marks(), seed))
+            return false;
+
+        if (Trace.on(Trace.DEBUG))
+            Trace.println("Sampled " + sampler.samples() + " arrangements of "
+                    + sampler.variables() + " nodes, R-hat " + sampler.rhat()
+                    + ", acceptance " + sampler.acceptance() + ".");
+
+        int bestNode = -1;
+        double lowestChance = 2.0;
+
+        for (int i = 0; i < sampler.variables(); i++)
+        {
+            if (sampler.probability(i) < lowestChance)
+            {
+                bestNode = sampler.node(i);
+                lowestChance = sampler.probability(i);
+            }
+        }
+
+        // a node away from the frontier may be the safer guess
+        if (unknown > sampler.variables() && sampler.otherProbability() < lowestChance)
+        {
+            int node = pickOffFrontier(m);
+            if (node != -1)
+            {
+                bestNode = node;
+                lowestChance = sampler.otherProbability();
+            }
+        }
+
+        safeFrontier.add(bestNode);
+        if (Trace.on(Trace.INFO))
+            Trace.println("Chose " + point(bestNode).toString()
+                    + " as best node with estimated bomb chance " + lowestChance + ".");
+
+        return true;
+    }
+
+    /**
+     * Picks an unprobed node off the frontier at random. The nodes are
+     * counted and the chosen one is found on a second pass, so the pick
+     * takes the same time however few of them are left.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     * @return the node, or -1 if every unprobed node is on the frontier.
+     */
+    private int pickOffFrontier(Map m)
+    {
+        int count = 0;
+        for (int node = 0; node < nb.size(); node++)
+        {
+            if (!probed[node] && !checkFrontierNeighbor(node))
+                count++;
+        }
+
+        if (count == 0)
+            return -1;
+
+        int k = m.pick(count);
+        for (int node = 0; ; node++)
+        {
+            if (!probed[node] && !checkFrontierNeighbor(node) && k-- == 0)
+                return node;
+        }
+    }
+
+    /**
+     * Checks if a node is next to a node in the checkFrontier.
+     *
+     * @param node a node in the map.
+     * @return true if a neighbor of the node is in the checkFrontier.
+     */
+    private boolean checkFrontierNeighbor(int node)
+    {
+        for (int k = 0; k < Neighborhood.NEIGHBORS; k++)
+        {
+            if (checkFrontier.contains(node + nb.offset(k)))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a certain node in the map has been probed or not.
+     *
+     * @param x coordinate in the map
+     * @param y coordinate in the map
+     * @return true if the node has been probed, else false.
+     */
+    private boolean hasBeenProbed(int x, int y)
+    {
+        return probed[index(x, y)];
+    }
+
+    /**
+     * Gives the node at a coordinate in the map.
+     *
+     * @param x coordinate in the map
+     * @param y coordinate in the map
+     * @return the node.
+     */
+    private int index(int x, int y)
+    {
+        return nb.node(x, y);
+    }
+
+    /**
+     * Gives the coordinates of a node, for tracing.
+     *
+     * @param node a node in the map.
+     * @return the point of the node.
+     */
+    private Point point(int node)
+    {
+        return new Point(nb.row(node), nb.column(node));
+    }
+
+    /**
+     * Finds a random node in the map that has not been probed.
+     *
+     * @param m Stores all the information needed to interact with the map.
+     * @return a point that has not been probed
+     */
+    private Point makeRandomProbe(Map m)
+    {
+        int x;
+        int y;
+
+        do
+        {
+            x = m.pick(m.rows());
+            y = m.pick(m.columns());
+        } while (hasBeenProbed(x, y) || excludeList.contains(index(x, y)));
+
+        return new Point(x, y);
+    }
+
+    /**
+     * Finds a random node adjacent to a given point that has not been probed.
+     *
+     * @param x coordinate in the map.
+     * @param y coordinate in the map.
+     * @param m Stores all the information needed to interact with the map.
+     * @return a random point adjacent to a given point that has not been probed.
+     */
+    private Point probeRandomAdjacent(int x, int y, Map m)
+    {
+        int[] adjacent = new int[Neighborhood.NEIGHBORS];
+        int n = adjacentUnprobed(index(x, y), adjacent);
+
+        // every neighbor is known, so there is nothing adjacent to pick
+        if (n == 0)
+            return makeRandomProbe(m);
+
+        return point(adjacent[m.pick(n)]);
+    }
+}
\ No newline at end of file
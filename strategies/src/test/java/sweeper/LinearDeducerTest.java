@@ -0,0 +1,78 @@
+package sweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the deductions of the linear deducer against every arrangement of
+ * the bombs on small random boards, and on a pattern only elimination
+ * solves.
+ */
+class LinearDeducerTest
+{
+    private static final int BOARDS = 500;
+
+    /**
+     * Three unprobed nodes a, b and c in a row, next to probed nodes that
+     * show 1, 2 and 1. No single equation forces a node, but their
+     * differences put bombs in a and c, so b is safe.
+     */
+    @Test
+    void solvesOneTwoOne()
+    {
+        int a = 10;
+        int b = 11;
+        int c = 12;
+        LinearDeducer deducer = new LinearDeducer();
+        deducer.reset(16);
+        deducer.setConstraint(0, new int[] {a, b}, 2, 1);
+        deducer.setConstraint(1, new int[] {a, b, c}, 3, 2);
+        deducer.setConstraint(2, new int[] {b, c}, 2, 1);
+
+        int deductions = deducer.solve();
+        assertEquals(3, deductions);
+        for (int i = 0; i < deductions; i++)
+            assertEquals(deducer.node(i) != b, deducer.bomb(i), "node " + deducer.node(i));
+
+        // nothing was touched since, so nothing is reduced again
+        assertEquals(0, deducer.solve());
+    }
+
+    @Test
+    void deducesOnlyWhatEveryArrangementAgreesOn()
+    {
+        Random random = new Random(2);
+        LinearDeducer deducer = new LinearDeducer();
+        int found = 0;
+        for (int n = 0; n < BOARDS; n++)
+        {
+            SmallBoard board = new SmallBoard(4, 4, 2 + random.nextInt(5), random);
+
+            deducer.reset(board.cells);
+            int owner = 0;
+            for (int c = 0; c < board.constraintCells.size(); c++)
+            {
+                int[] cells = board.constraintCells.get(c);
+                deducer.setConstraint(owner++, cells, cells.length, board.constraintBombs.get(c));
+            }
+
+            int deductions = deducer.solve();
+            for (int i = 0; i < deductions; i++)
+            {
+                int node = deducer.node(i);
+                assertFalse(board.probed[node], "board " + n + ", node " + node);
+                if (deducer.bomb(i))
+                    assertTrue(board.bomb(node), "board " + n + ", bomb " + node);
+                else
+                    assertTrue(board.safe(node), "board " + n + ", safe " + node);
+            }
+            found += deductions;
+        }
+        assertTrue(found > 0);
+    }
+}
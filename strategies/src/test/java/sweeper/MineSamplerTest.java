@@ -0,0 +1,76 @@
+package sweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the probabilities the sampler estimates against the exact ones of
+ * the probability solver.
+ */
+class MineSamplerTest
+{
+    /**
+     * One run can be several hundredths off; the mean of many independent
+     * runs settles well within this.
+     */
+    private static final double TOLERANCE = 0.015;
+    private static final int RUNS = 60;
+
+    /**
+     * A chain of overlapping constraints, so the variables at its ends are
+     * in one constraint and those in the middle in up to three, so
+     * exchanges are proposed between variables of unequal degree.
+     */
+    private static final int[][] CELLS = {
+        {0, 1, 2},
+        {1, 2, 3},
+        {2, 3, 4},
+        {3, 4, 5},
+        {4, 5, 6, 7, 8},
+        {8, 9},
+    };
+    private static final int[] BOMBS = {1, 1, 2, 1, 2, 1};
+
+    private static final int UNKNOWN = 30;
+    private static final int MINES = 8;
+
+    @Test
+    void matchesExactProbabilitiesWithUnequalDegrees()
+    {
+        ProbabilitySolver solver = new ProbabilitySolver();
+        for (int c = 0; c < CELLS.length; c++)
+            solver.addConstraint(CELLS[c], CELLS[c].length, BOMBS[c]);
+        assertTrue(solver.solve(UNKNOWN, MINES));
+
+        double[] mean = new double[solver.variables()];
+        double otherMean = 0;
+        for (int run = 0; run < RUNS; run++)
+        {
+            // a fresh sampler, as a reused one starts warm from the last run
+            MineSampler sampler = new MineSampler();
+            for (int c = 0; c < CELLS.length; c++)
+                sampler.addConstraint(CELLS[c], CELLS[c].length, BOMBS[c]);
+            assertTrue(sampler.solve(UNKNOWN, MINES, run));
+            assertEquals(solver.variables(), sampler.variables());
+            for (int i = 0; i < mean.length; i++)
+                mean[i] += sampler.probability(variableOf(sampler, solver.node(i))) / RUNS;
+            otherMean += sampler.otherProbability() / RUNS;
+        }
+
+        for (int i = 0; i < mean.length; i++)
+            assertEquals(solver.probability(i), mean[i], TOLERANCE, "node " + solver.node(i));
+        assertEquals(solver.otherProbability(), otherMean, TOLERANCE, "nodes in no constraint");
+    }
+
+    private static int variableOf(MineSampler sampler, int node)
+    {
+        for (int i = 0; i < sampler.variables(); i++)
+        {
+            if (sampler.node(i) == node)
+                return i;
+        }
+        throw new AssertionError("node " + node + " is not a variable");
+    }
+}
@@ -0,0 +1,56 @@
+package sweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the probabilities of the solver against those found by trying
+ * every arrangement of the bombs on small random boards.
+ */
+class ProbabilitySolverTest
+{
+    private static final double TOLERANCE = 1e-9;
+    private static final int BOARDS = 500;
+
+    @Test
+    void matchesEveryArrangementOnSmallBoards()
+    {
+        Random random = new Random(1);
+        ProbabilitySolver solver = new ProbabilitySolver();
+        for (int b = 0; b < BOARDS; b++)
+        {
+            SmallBoard board = new SmallBoard(4, 4, 2 + random.nextInt(5), random);
+
+            solver.clear();
+            for (int c = 0; c < board.constraintCells.size(); c++)
+            {
+                int[] cells = board.constraintCells.get(c);
+                solver.addConstraint(cells, cells.length, board.constraintBombs.get(c));
+            }
+            assertTrue(solver.solve(board.unknown, board.mines), "board " + b);
+
+            Set<Integer> variables = new HashSet<Integer>();
+            for (int i = 0; i < solver.variables(); i++)
+            {
+                int node = solver.node(i);
+                variables.add(node);
+                assertEquals(board.probability(node), solver.probability(i), TOLERANCE, "board " + b + ", node " + node);
+
+                int certain = board.safe(node) ? 0 : board.bomb(node) ? 1 : -1;
+                assertEquals(certain, solver.certain(i), "board " + b + ", node " + node);
+            }
+
+            for (int cell = 0; cell < board.cells; cell++)
+            {
+                if (!board.probed[cell] && !variables.contains(cell))
+                    assertEquals(board.probability(cell), solver.otherProbability(), TOLERANCE, "board " + b + ", node " + cell);
+            }
+        }
+    }
+}
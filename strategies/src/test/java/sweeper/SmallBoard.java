@@ -0,0 +1,173 @@
+package sweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A small random board, partly probed, with the constraints its probed
+ * cells give and the exact odds of a bomb in each unprobed cell, found by
+ * trying every arrangement of the bombs. The cells are numbered row by row
+ * and serve as the nodes of the solvers.
+ */
+final class SmallBoard
+{
+    final int cells;
+    final int mines;
+    final boolean[] mine;
+    final boolean[] probed;
+    final int unknown;
+
+    // the unprobed neighbors of each probed cell next to one, and their bombs
+    final List<int[]> constraintCells = new ArrayList<int[]>();
+    final List<Integer> constraintBombs = new ArrayList<Integer>();
+
+    // the arrangements that meet every constraint, and of those, the number
+    // with a bomb in each cell
+    private long arrangements;
+    private final long[] bombArrangements;
+
+    /**
+     * Places the mines and probes each safe cell with chance 1/3.
+     *
+     * @param rows rows of the board.
+     * @param columns columns of the board, so that rows * columns is small
+     *                enough to try every arrangement of the unprobed cells.
+     * @param mines the number of mines.
+     * @param random chooses the board.
+     */
+    SmallBoard(int rows, int columns, int mines, Random random)
+    {
+        this.cells = rows * columns;
+        this.mines = mines;
+        mine = new boolean[cells];
+        for (int placed = 0; placed < mines; )
+        {
+            int cell = random.nextInt(cells);
+            if (!mine[cell])
+            {
+                mine[cell] = true;
+                placed++;
+            }
+        }
+
+        probed = new boolean[cells];
+        int unprobed = 0;
+        for (int cell = 0; cell < cells; cell++)
+        {
+            probed[cell] = !mine[cell] && random.nextInt(3) == 0;
+            if (!probed[cell])
+                unprobed++;
+        }
+        unknown = unprobed;
+
+        for (int cell = 0; cell < cells; cell++)
+        {
+            if (!probed[cell])
+                continue;
+
+            int[] around = new int[Neighborhood.NEIGHBORS];
+            int n = 0;
+            int bombs = 0;
+            for (int dr = -1; dr <= 1; dr++)
+            {
+                for (int dc = -1; dc <= 1; dc++)
+                {
+                    int r = cell / columns + dr;
+                    int c = cell % columns + dc;
+                    if ((dr != 0 || dc != 0) && r >= 0 && r < rows && c >= 0 && c < columns)
+                    {
+                        int next = r * columns + c;
+                        if (mine[next])
+                            bombs++;
+                        if (!probed[next])
+                            around[n++] = next;
+                    }
+                }
+            }
+
+            if (n > 0)
+            {
+                constraintCells.add(Arrays.copyOf(around, n));
+                constraintBombs.add(bombs);
+            }
+        }
+
+        bombArrangements = new long[cells];
+        count();
+    }
+
+    /* Try every way to place the mines in the unprobed cells. */
+    private void count()
+    {
+        int[] unprobed = new int[unknown];
+        for (int cell = 0, u = 0; cell < cells; cell++)
+        {
+            if (!probed[cell])
+                unprobed[u++] = cell;
+        }
+
+        boolean[] bomb = new boolean[cells];
+        for (int mask = 0; mask < 1 << unknown; mask++)
+        {
+            if (Integer.bitCount(mask) != mines)
+                continue;
+
+            for (int u = 0; u < unknown; u++)
+                bomb[unprobed[u]] = (mask >> u & 1) != 0;
+            if (!meetsConstraints(bomb))
+                continue;
+
+            arrangements++;
+            for (int u = 0; u < unknown; u++)
+            {
+                if (bomb[unprobed[u]])
+                    bombArrangements[unprobed[u]]++;
+            }
+        }
+    }
+
+    private boolean meetsConstraints(boolean[] bomb)
+    {
+        for (int c = 0; c < constraintCells.size(); c++)
+        {
+            int bombs = 0;
+            for (int cell : constraintCells.get(c))
+            {
+                if (bomb[cell])
+                    bombs++;
+            }
+            if (bombs != constraintBombs.get(c))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param cell an unprobed cell.
+     * @return the chance that the cell holds a bomb.
+     */
+    double probability(int cell)
+    {
+        return (double) bombArrangements[cell] / arrangements;
+    }
+
+    /**
+     * @param cell an unprobed cell.
+     * @return true if no arrangement puts a bomb in the cell.
+     */
+    boolean safe(int cell)
+    {
+        return bombArrangements[cell] == 0;
+    }
+
+    /**
+     * @param cell an unprobed cell.
+     * @return true if every arrangement puts a bomb in the cell.
+     */
+    boolean bomb(int cell)
+    {
+        return bombArrangements[cell] == arrangements;
+    }
+}